@@ -0,0 +1,35 @@
+package com.github.zoltanmeze.aoc.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+
+/**
+ * Entry point of {@code benchmarks.jar}, accepts the usual JMH command line options,
+ * but always attaches the GC profiler to report allocation rate per operation.
+ * Results of {@link ScalingBenchmark} are summarized as a {@link ComplexityReport} at the end.
+ *
+ * <pre>
+ * mvn -B -Pbenchmark package
+ * java -jar target/benchmarks.jar PuzzleBenchmark -p day=Day12,Day17
+ * java -jar target/benchmarks.jar ScalingBenchmark -p day=Day07 -p scale=1,10,100,1000
+ * </pre>
+ */
+public class Benchmarks {
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+            .parent(commandLineOptions)
+            .addProfiler(GCProfiler.class)
+            .build())
+            .run();
+        ComplexityReport.print(results, System.out);
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.zoltanmeze.aoc.benchmark;
+
+import lombok.experimental.UtilityClass;
+import org.openjdk.jmh.results.RunResult;
+
+import java.io.PrintStream;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Empirical complexity of benchmarks run with a {@code scale} parameter: if the time grows as {@code scale^k},
+ * k is the slope of the least squares line through the log-log points. The exponent between the two largest
+ * scales is shown as well, quadratic behaviour tends to show up only once the input is large.
+ */
+@UtilityClass
+public class ComplexityReport {
+
+    private static final String SCALE = "scale";
+
+    public static void print(Collection<RunResult> results, PrintStream out) {
+        // Benchmark and day -> scale -> score
+        Map<String, TreeMap<Integer, Double>> curves = new TreeMap<>();
+        String unit = null;
+        for (RunResult result : results) {
+            String scale = result.getParams().getParam(SCALE);
+            if (scale == null) {
+                continue;
+            }
+            String benchmark = result.getParams().getBenchmark();
+            String name = benchmark.substring(benchmark.lastIndexOf('.') + 1) + " " + result.getParams().getParam("day");
+            curves.computeIfAbsent(name, key -> new TreeMap<>()).put(Integer.parseInt(scale), result.getPrimaryResult().getScore());
+            unit = result.getPrimaryResult().getScoreUnit();
+        }
+        if (curves.isEmpty()) {
+            return;
+        }
+        out.printf("%nEmpirical complexity, time ~ scale^k (%s)%n", unit);
+        out.printf("%-20s %-40s %8s %8s%n", "Benchmark", "Scale: time", "k", "k last");
+        for (var curve : curves.entrySet()) {
+            StringBuilder times = new StringBuilder();
+            curve.getValue().forEach((scale, score) -> times.append(times.length() > 0 ? ", " : "").append(scale).append(": ").append(String.format("%.3f", score)));
+            out.printf("%-20s %-40s %8s %8s%n", curve.getKey(), times, format(slope(curve.getValue())), format(lastSlope(curve.getValue())));
+        }
+    }
+
+    private static double slope(TreeMap<Integer, Double> curve) {
+        if (curve.size() < 2) {
+            return Double.NaN;
+        }
+        double sumX = 0d;
+        double sumY = 0d;
+        double sumXX = 0d;
+        double sumXY = 0d;
+        for (var point : curve.entrySet()) {
+            double x = Math.log(point.getKey());
+            double y = Math.log(point.getValue());
+            sumX += x;
+            sumY += y;
+            sumXX += x * x;
+            sumXY += x * y;
+        }
+        int n = curve.size();
+        return (n * sumXY - sumX * sumY) / (n * sumXX - sumX * sumX);
+    }
+
+    private static double lastSlope(TreeMap<Integer, Double> curve) {
+        if (curve.size() < 2) {
+            return Double.NaN;
+        }
+        var last = curve.lastEntry();
+        var previous = curve.lowerEntry(last.getKey());
+        return Math.log(last.getValue() / previous.getValue()) / Math.log((double) last.getKey() / previous.getKey());
+    }
+
+    private static String format(double exponent) {
+        return Double.isNaN(exponent) ? "-" : String.format("%.2f", exponent);
+    }
+}
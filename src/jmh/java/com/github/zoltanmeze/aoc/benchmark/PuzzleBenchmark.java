@@ -0,0 +1,61 @@
+package com.github.zoltanmeze.aoc.benchmark;
+
+import com.github.zoltanmeze.aoc.Puzzle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and solving of every day measured separately, so a change in a solver is not hidden by the cost of parsing.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PuzzleBenchmark {
+
+    @Param({
+        "Day01", "Day02", "Day03", "Day04", "Day05", "Day06", "Day07", "Day08", "Day09", "Day10",
+        "Day11", "Day12", "Day13", "Day14", "Day15", "Day16", "Day17", "Day18", "Day19"
+    })
+    private String day;
+
+    private Puzzle<Object> puzzle;
+    private Object input;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() throws ReflectiveOperationException {
+        String className = Puzzle.class.getPackageName() + "." + day.toLowerCase() + "." + day;
+        puzzle = (Puzzle<Object>) Class.forName(className).getDeclaredConstructor().newInstance();
+        input = puzzle.parseInput();
+    }
+
+    @Benchmark
+    public Object parseInput() {
+        return puzzle.parseInput();
+    }
+
+    @Benchmark
+    public Object partOne() {
+        return puzzle.partOne(input);
+    }
+
+    @Benchmark
+    public Object partTwo() {
+        return puzzle.partTwo(input);
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.zoltanmeze.aoc.benchmark;
+
+import com.github.zoltanmeze.aoc.InputGenerator;
+import com.github.zoltanmeze.aoc.Puzzle;
+import com.github.zoltanmeze.aoc.utilities.MappedInput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every day solved on generated inputs of growing scale, {@link ComplexityReport} turns the results into the
+ * empirical complexity of each phase. Large scales of the slower days take a long time, pick them with
+ * {@code -p day=Day07 -p scale=1,10,100}.
+ */
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ScalingBenchmark {
+
+    @Param({
+        "Day01", "Day02", "Day03", "Day04", "Day05", "Day06", "Day07", "Day08", "Day09", "Day10",
+        "Day11", "Day12", "Day13", "Day14", "Day15", "Day16", "Day17", "Day18", "Day19"
+    })
+    private String day;
+
+    @Param({"1", "10", "100", "1000"})
+    private int scale;
+
+    @Param("2023")
+    private long seed;
+
+    private Puzzle<Object> puzzle;
+    private Path file;
+    private Object input;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() throws ReflectiveOperationException, IOException {
+        Class<?> puzzleClass = Class.forName(Puzzle.class.getPackageName() + "." + day.toLowerCase() + "." + day);
+        puzzle = (Puzzle<Object>) puzzleClass.getDeclaredConstructor().newInstance();
+        file = InputGenerator.of(puzzleClass).generate(seed, scale, Files.createTempFile(day.toLowerCase() + "-x" + scale + "-", ".txt"));
+        input = puzzle.parseInput(MappedInput.of(file));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Object parseInput() {
+        return puzzle.parseInput(MappedInput.of(file));
+    }
+
+    @Benchmark
+    public Object partOne() {
+        return puzzle.partOne(input);
+    }
+
+    @Benchmark
+    public Object partTwo() {
+        return puzzle.partTwo(input);
+    }
+}
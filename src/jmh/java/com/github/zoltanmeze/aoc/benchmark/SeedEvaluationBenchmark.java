@@ -0,0 +1,62 @@
+package com.github.zoltanmeze.aoc.benchmark;
+
+import com.github.zoltanmeze.aoc.day05.CompiledAlmanac;
+import com.github.zoltanmeze.aoc.day05.Day05;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lowest location of a large batch of random seeds through the compiled maps of the real almanac, by the number of
+ * seeds and the number of threads they are split between. A hundred million seeds take 800 MB on their own.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SeedEvaluationBenchmark {
+
+    @Param({"10000", "1000000", "100000000"})
+    private int seeds;
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    private CompiledAlmanac almanac;
+    private long[] values;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Day05 day = new Day05();
+        almanac = day.parseInput().compile();
+        values = new SplittableRandom(42).longs(seeds, 0, 1L << 32).toArray();
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long minimumOf() {
+        return almanac.minimumOf(values, pool);
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.zoltanmeze.aoc;
+
+import lombok.SneakyThrows;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Writes random, but valid inputs of a puzzle for scale testing, the same seed and scale always give the same input.
+ * Scale 1 is roughly the size of the bundled puzzle input and the input grows linearly with the scale,
+ * grids grow by the square root of the scale on both sides.
+ * Generators are named after their puzzle, {@code Day07Generator} writes inputs of {@code Day07}.
+ */
+public interface InputGenerator {
+
+    /**
+     * Writes the input line by line, lines are terminated by {@code \n}.
+     */
+    void generate(SplittableRandom random, int scale, PrintWriter out);
+
+    @SneakyThrows
+    default Path generate(long seed, int scale, Path file) {
+        if (scale < 1) {
+            throw new IllegalArgumentException("Scale has to be positive, got " + scale);
+        }
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.US_ASCII))) {
+            generate(new SplittableRandom(seed), scale, out);
+            if (out.checkError()) {
+                throw new IOException("Unable to write " + file);
+            }
+        }
+        return file;
+    }
+
+    @SneakyThrows
+    static InputGenerator of(Class<?> puzzleClass) {
+        return (InputGenerator) Class.forName(puzzleClass.getName() + "Generator").getDeclaredConstructor().newInstance();
+    }
+
+    /**
+     * Side of a square grid with {@code side * side * scale} cells.
+     */
+    static int scaleSide(int side, int scale) {
+        return (int) Math.round(side * Math.sqrt(scale));
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.zoltanmeze.aoc;
+
+import com.github.zoltanmeze.aoc.utilities.InputCache;
+import com.github.zoltanmeze.aoc.utilities.MappedInput;
+
+/**
+ * Common shape of the daily puzzles: the input is parsed separately from solving the two parts,
+ * so parsing and solving can be measured (and reused) independently.
+ * Parts must not mutate their input, the same parsed input is shared between parts and runs.
+ *
+ * @param <T> type of the parsed input
+ */
+public interface Puzzle<T> extends Runnable {
+
+    T parseInput(MappedInput input);
+
+    Object partOne(T input);
+
+    Object partTwo(T input);
+
+    /**
+     * Name of the bundled input resource, {@code day01.txt} for {@code Day01}.
+     */
+    default String getInputName() {
+        return getClass().getSimpleName().toLowerCase() + ".txt";
+    }
+
+    default T parseInput() {
+        return parseInput(MappedInput.ofResource(getInputName()));
+    }
+
+    default T cachedInput() {
+        return InputCache.shared().get(getClass(), getInputName(), this::parseInput);
+    }
+
+    default Object partOne() {
+        return partOne(cachedInput());
+    }
+
+    default Object partTwo() {
+        return partTwo(cachedInput());
+    }
+}
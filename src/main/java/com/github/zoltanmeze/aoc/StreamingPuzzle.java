@@ -0,0 +1,29 @@
+package com.github.zoltanmeze.aoc;
+
+import com.github.zoltanmeze.aoc.utilities.LineReader;
+
+/**
+ * Puzzle which can also be solved while reading the input, every line is folded into the result as it is read
+ * and dropped, so memory stays the same no matter how big the input is.
+ * Streamed answers are the same as the answers of the parsed input.
+ *
+ * @param <T> type of the parsed input
+ */
+public interface StreamingPuzzle<T> extends Puzzle<T> {
+
+    Object streamPartOne(LineReader lines);
+
+    Object streamPartTwo(LineReader lines);
+
+    default Object streamPartOne() {
+        try (LineReader lines = LineReader.ofResource(getInputName())) {
+            return streamPartOne(lines);
+        }
+    }
+
+    default Object streamPartTwo() {
+        try (LineReader lines = LineReader.ofResource(getInputName())) {
+            return streamPartTwo(lines);
+        }
+    }
+}
@@ -1,21 +1,21 @@
 package com.github.zoltanmeze.aoc.day01;
 
-import com.github.zoltanmeze.aoc.utilities.ResourceUtils;
-import lombok.Getter;
-import lombok.NoArgsConstructor;
-import lombok.SneakyThrows;
+import com.github.zoltanmeze.aoc.StreamingPuzzle;
+import com.github.zoltanmeze.aoc.utilities.LineReader;
+import com.github.zoltanmeze.aoc.utilities.MappedInput;
+import com.github.zoltanmeze.aoc.utilities.TokenAutomaton;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.File;
-import java.io.FileReader;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
 
 @Slf4j
-public class Day01 implements Runnable {
+public class Day01 implements StreamingPuzzle<List<CharSequence>> {
+
+    private static final TokenAutomaton SPELLED_DIGITS = TokenAutomaton.of(spelledDigits());
+    private static final TokenAutomaton REVERSED_SPELLED_DIGITS = TokenAutomaton.ofReversed(spelledDigits());
 
     public static void main(String[] args) {
         new Day01().run();
@@ -27,118 +27,120 @@ public class Day01 implements Runnable {
         log.info("Part two: {}", partTwo());
     }
 
-    public Object partOne() {
-        List<String> input = parseInput();
-
+    @Override
+    public Object partOne(List<CharSequence> input) {
         int sum = 0;
-
-        for (String line : input) {
-            Integer first = null;
-            Integer last = null;
-
-            for (char ch : line.toCharArray()) {
-                if (ch >= '0' && ch <= '9') {
-                    int num = ch - '0';
-                    if (first == null) {
-                        first = num;
-                    }
-                    last = num;
-                }
-            }
-            assert first != null;
-            sum += 10 * first + last;
+        for (CharSequence line : input) {
+            sum += calibrationValue(line);
         }
         return sum;
     }
 
-
-    public Object partTwo() {
-        String[] numbers = new String[] {
-            "one", "two", "three", "four", "five", "six", "seven", "eight", "nine"
-        };
-        TrieNode trie = new TrieNode();
-        for (int i = 0; i < numbers.length; i++) {
-            trie.add(numbers[i], i + 1);
-        }
-
-        List<String> input = parseInput();
-
+    @Override
+    public Object partTwo(List<CharSequence> input) {
         int sum = 0;
+        for (CharSequence line : input) {
+            sum += calibrationValue(line, SPELLED_DIGITS, REVERSED_SPELLED_DIGITS);
+        }
+        return sum;
+    }
 
-        for (String line : input) {
-            char[] chars = line.toCharArray();
-
-            Integer first = null;
-            Integer last = null;
-
-            for (int i = 0; i < chars.length; i++) {
-                char ch = chars[i];
-                Integer num = null;
-
-                if (ch >= '1' && ch <= '9') {
-                    num = ch - '0';
-                } else {
-                    TrieNode currentNode = trie;
-                    for (int j = i; j < chars.length; j++) {
-                        currentNode = currentNode.getNext(chars[j]);
-                        if (currentNode == null) {
-                            break;
-                        } else if (currentNode.isLeaf()) {
-                            num = currentNode.getData();
-                            break;
-                        }
-                    }
-                }
-                if (num != null) {
-                    if (first == null) {
-                        first = num;
-                    }
-                    last = num;
-                }
-            }
-            assert first != null;
-            sum += 10 * first + last;
+    @Override
+    public Object streamPartOne(LineReader lines) {
+        long sum = 0L;
+        while (lines.hasNextLine()) {
+            sum += calibrationValue(lines.nextLine());
         }
+        return sum;
+    }
 
+    @Override
+    public Object streamPartTwo(LineReader lines) {
+        long sum = 0L;
+        while (lines.hasNextLine()) {
+            sum += calibrationValue(lines.nextLine(), SPELLED_DIGITS, REVERSED_SPELLED_DIGITS);
+        }
         return sum;
     }
 
-    @Getter
-    @NoArgsConstructor
-    private static class TrieNode {
+    /**
+     * First digit is searched from the start of the line, last one from its end, so only the two ends are scanned.
+     */
+    private int calibrationValue(CharSequence line) {
+        int first = -1;
+        for (int i = 0; i < line.length() && first == -1; i++) {
+            first = digit(line.charAt(i));
+        }
+        int last = -1;
+        for (int i = line.length() - 1; i >= 0 && last == -1; i--) {
+            last = digit(line.charAt(i));
+        }
+        if (first == -1) {
+            throw new RuntimeException("No digits found in " + line);
+        }
+        return 10 * first + last;
+    }
 
-        private Integer data;
-        private final Map<Character, TrieNode> children = new HashMap<>();
+    private static int digit(char ch) {
+        return ch >= '0' && ch <= '9' ? ch - '0' : -1;
+    }
 
-        public void add(final String string, final int index) {
-            TrieNode current = this;
-            for (char ch : string.toCharArray()) {
-                current = current.children.computeIfAbsent(ch, k -> new TrieNode());
+    /**
+     * Token starting first is searched from the start of the line, the one starting last from its end with the
+     * reversed automaton, on a tie the shorter one is taken. Scanning stops at both ends as soon as the tokens are
+     * certain, only the two ends of the line are scanned.
+     */
+    private int calibrationValue(CharSequence line, TokenAutomaton automaton, TokenAutomaton reversed) {
+        // Tokens are matched by their ends, a longer one starting earlier may still end up to maxLength - 1 later
+        int first = -1;
+        int firstStart = Integer.MAX_VALUE;
+        int state = automaton.start();
+        for (int i = 0; i < line.length() && (first == -1 || i <= firstStart + automaton.maxLength() - 2); i++) {
+            state = automaton.next(state, line.charAt(i));
+            for (int match = automaton.match(state); match != -1; match = automaton.nextMatch(match)) {
+                int start = i - automaton.length(match) + 1;
+                if (start < firstStart) {
+                    firstStart = start;
+                    first = automaton.value(match);
+                }
             }
-            current.data = index;
         }
-
-        public TrieNode getNext(final char ch) {
-            return children.get(ch);
+        // Backwards the end of a match is the start of the token, the first matching state has the last token
+        int last = -1;
+        state = reversed.start();
+        for (int i = line.length() - 1; i >= 0 && last == -1; i--) {
+            state = reversed.next(state, line.charAt(i));
+            for (int match = reversed.match(state); match != -1; match = reversed.nextMatch(match)) {
+                last = reversed.value(match); // Shortest one is enumerated last
+            }
         }
+        if (first == -1) {
+            throw new RuntimeException("No digits found in " + line);
+        }
+        return 10 * first + last;
+    }
 
-        public boolean isLeaf() {
-            return data != null;
+    /**
+     * Digits, spelled out or not, zero isn't counted as a digit.
+     */
+    private static Map<String, Integer> spelledDigits() {
+        String[] numbers = new String[] {
+            "one", "two", "three", "four", "five", "six", "seven", "eight", "nine"
+        };
+        Map<String, Integer> digits = new LinkedHashMap<>();
+        for (int i = 0; i < numbers.length; i++) {
+            digits.put(numbers[i], i + 1);
+            digits.put(String.valueOf(i + 1), i + 1);
         }
+        return digits;
     }
 
-    @SneakyThrows
-    public List<String> parseInput() {
-        File file = ResourceUtils.getResourceFile("day01.txt");
-        try (
-            FileReader fileReader = new FileReader(file);
-            Scanner scanner = new Scanner(fileReader)
-        ) {
-            List<String> groups = new ArrayList<>();
-            while (scanner.hasNext()) {
-                groups.add(scanner.nextLine());
-            }
-            return groups;
+    @Override
+    public List<CharSequence> parseInput(MappedInput input) {
+        List<CharSequence> lines = new ArrayList<>();
+        while (input.hasNextLine()) {
+            lines.add(input.nextLine());
         }
+        return lines;
     }
 }
@@ -0,0 +1,36 @@
+package com.github.zoltanmeze.aoc.day01;
+
+import com.github.zoltanmeze.aoc.InputGenerator;
+
+import java.io.PrintWriter;
+import java.util.SplittableRandom;
+
+/**
+ * Lines of random letters with digits and spelled out digits mixed in, every line has at least one digit.
+ */
+public class Day01Generator implements InputGenerator {
+
+    private static final String[] NUMBERS = {
+        "one", "two", "three", "four", "five", "six", "seven", "eight", "nine"
+    };
+
+    @Override
+    public void generate(SplittableRandom random, int scale, PrintWriter out) {
+        StringBuilder line = new StringBuilder(64);
+        for (int i = 0, lines = 1000 * scale; i < lines; i++) {
+            line.setLength(0);
+            for (int j = 0, tokens = random.nextInt(2, 12); j < tokens; j++) {
+                int token = random.nextInt(10);
+                if (token < 6) {
+                    line.append((char) ('a' + random.nextInt(26)));
+                } else if (token < 8) {
+                    line.append(NUMBERS[random.nextInt(NUMBERS.length)]);
+                } else {
+                    line.append((char) ('1' + random.nextInt(9)));
+                }
+            }
+            line.insert(random.nextInt(line.length() + 1), (char) ('1' + random.nextInt(9)));
+            out.append(line).append('\n');
+        }
+    }
+}
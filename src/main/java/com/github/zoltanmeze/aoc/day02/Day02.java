@@ -1,20 +1,23 @@
 package com.github.zoltanmeze.aoc.day02;
 
-import com.github.zoltanmeze.aoc.utilities.ResourceUtils;
-import lombok.Data;
-import lombok.SneakyThrows;
+import com.github.zoltanmeze.aoc.StreamingPuzzle;
+import com.github.zoltanmeze.aoc.utilities.ByteTokenizer;
+import com.github.zoltanmeze.aoc.utilities.EnumUtils;
+import com.github.zoltanmeze.aoc.utilities.LineReader;
+import com.github.zoltanmeze.aoc.utilities.MappedInput;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.File;
-import java.io.FileReader;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Scanner;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Arrays;
+import java.util.Map;
 
 @Slf4j
-public class Day02 implements Runnable {
+public class Day02 implements StreamingPuzzle<Day02.Games> {
+
+    private static final int RED_LIMIT = 12;
+    private static final int GREEN_LIMIT = 13;
+    private static final int BLUE_LIMIT = 14;
 
     public static void main(String[] args) {
         new Day02().run();
@@ -26,110 +29,240 @@ public class Day02 implements Runnable {
         log.info("Part two: {}", partTwo());
     }
 
-    public Object partOne() {
-        List<Game> input = parseInput();
-
-        int[] limits = new int[Color.values().length];
-        limits[Color.RED.ordinal()] = 12;
-        limits[Color.GREEN.ordinal()] = 13;
-        limits[Color.BLUE.ordinal()] = 14;
-
-        int sum = 0;
-        for (Game game : input) {
-            boolean valid = true;
-            for (int i = 0; i < game.picks.length && valid; i++) {
-                int[] current = {0, 0, 0};
-                Pick[] picks = game.picks[i];
-                for (Pick pick : picks) {
-                    if ((current[pick.color.ordinal()] += pick.number) > limits[pick.color.ordinal()]) {
-                        valid = false;
-                        break;
-                    }
-                }
-            }
-            if (valid) {
-                sum += game.id;
+    @Override
+    public Object partOne(Games input) {
+        return input.sumOfPossibleIds(RED_LIMIT, GREEN_LIMIT, BLUE_LIMIT);
+    }
+
+    @Override
+    public Object partTwo(Games input) {
+        return input.sumOfPowers();
+    }
+
+    @Override
+    public Object streamPartOne(LineReader lines) {
+        int[] maxima = new int[Color.values().length];
+        long sum = 0;
+        while (lines.hasNextLine()) {
+            int id = parseGame(ByteTokenizer.of(lines.nextLine().asByteBuffer()), maxima);
+            if (maxima[Color.RED.ordinal()] <= RED_LIMIT && maxima[Color.GREEN.ordinal()] <= GREEN_LIMIT
+                && maxima[Color.BLUE.ordinal()] <= BLUE_LIMIT) {
+                sum += id;
             }
         }
         return sum;
     }
 
-    public Object partTwo() {
-        List<Game> input = parseInput();
+    @Override
+    public Object streamPartTwo(LineReader lines) {
+        int[] maxima = new int[Color.values().length];
         long sum = 0;
-        for (Game game : input) {
-            int[] required = {0, 0, 0};
-            for (int i = 0; i < game.picks.length; i++) {
-                int[] curr = {0, 0, 0};
-                Pick[] picks = game.picks[i];
-                for (Pick pick : picks) {
-                    if ((curr[pick.color.ordinal()] += pick.number) > required[pick.color.ordinal()]) {
-                        required[pick.color.ordinal()] = curr[pick.color.ordinal()];
-                    }
-                }
-            }
-            long pow = 1;
-            for (int r : required) {
-                pow *= r;
-            }
-            sum += pow;
+        while (lines.hasNextLine()) {
+            parseGame(ByteTokenizer.of(lines.nextLine().asByteBuffer()), maxima);
+            sum += power(maxima[Color.RED.ordinal()], maxima[Color.GREEN.ordinal()], maxima[Color.BLUE.ordinal()]);
         }
         return sum;
     }
 
-    private enum Color {
-        RED, GREEN, BLUE
+    private static long power(int red, int green, int blue) {
+        return (long) red * green * blue;
     }
 
-    @Data(staticConstructor = "of")
-    private static final class Pick {
-        private final Color color;
-        private final int number;
-    }
+    @Getter
+    @RequiredArgsConstructor
+    private enum Color {
+
+        RED('r'),
+        GREEN('g'),
+        BLUE('b');
+
+        private final char label;
 
-    @Data(staticConstructor = "of")
-    private static final class Game {
-        private final int id;
-        private final Pick[][] picks;
+        private static final Map<Character, Color> REVERSE_LOOKUP_MAP = EnumUtils.toReverseLookupMap(Color.class, Color::getLabel);
+
+        public static Color fromLabel(char label) {
+            return REVERSE_LOOKUP_MAP.get(label);
+        }
     }
 
-    @SneakyThrows
-    private List<Game> parseInput() {
-        File file = ResourceUtils.getResourceFile("day02.txt");
-        try (
-            FileReader fileReader = new FileReader(file);
-            Scanner scanner = new Scanner(fileReader)
-        ) {
-            Pattern gamePattern = Pattern.compile("^Game (?<ID>\\d+): ");
-            Pattern pickPattern = Pattern.compile("(?<NUMBER>\\d+) (?<COLOR>(red|green|blue))");
-
-            List<Game> games = new ArrayList<>();
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-
-                Matcher matcher = gamePattern.matcher(line);
-                if (!matcher.find()) {
-                    throw new RuntimeException();
+    /**
+     * Game log stored by columns: the id of every game and the most cubes of each color shown in one of its sets.
+     * A game is possible under some limits if none of its maxima is above the limit of its color.
+     * <p>
+     * Games are also counted into a 3-D table of id sums, indexed by the distinct maxima of the three colors and summed
+     * up along every axis, so a query only has to find the limits among the distinct maxima: {@code O(log n)}.
+     * If there are too many distinct maxima for the table to fit, the columns are scanned instead.
+     */
+    static final class Games {
+
+        private static final int MAX_TABLE_SIZE = 1 << 22;
+
+        private final int size;
+        private final int[] ids;
+        private final int[] red;
+        private final int[] green;
+        private final int[] blue;
+
+        // Sorted, distinct maxima of each color and the sums of ids by their indices, null if it didn't fit
+        private final int[] reds;
+        private final int[] greens;
+        private final int[] blues;
+        private final long[] table;
+
+        Games(int size, int[] ids, int[] red, int[] green, int[] blue) {
+            this.size = size;
+            this.ids = ids;
+            this.red = red;
+            this.green = green;
+            this.blue = blue;
+            this.reds = distinct(red, size);
+            this.greens = distinct(green, size);
+            this.blues = distinct(blue, size);
+            this.table = buildTable();
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Sum of the ids of the games possible with the given number of cubes of each color.
+         */
+        public long sumOfPossibleIds(int redLimit, int greenLimit, int blueLimit) {
+            if (table == null) {
+                return scan(redLimit, greenLimit, blueLimit);
+            }
+            int x = countAtMost(reds, redLimit);
+            int y = countAtMost(greens, greenLimit);
+            int z = countAtMost(blues, blueLimit);
+            return table[(x * (greens.length + 1) + y) * (blues.length + 1) + z];
+        }
+
+        /**
+         * Answers a batch of queries, the limits are given as red, green, blue triples one after the other.
+         */
+        public long[] sumOfPossibleIds(int[] limits) {
+            if (limits.length % 3 != 0) {
+                throw new IllegalArgumentException("Limits have to be red, green, blue triples, got " + limits.length + " numbers");
+            }
+            long[] sums = new long[limits.length / 3];
+            for (int i = 0; i < sums.length; i++) {
+                sums[i] = sumOfPossibleIds(limits[3 * i], limits[3 * i + 1], limits[3 * i + 2]);
+            }
+            return sums;
+        }
+
+        /**
+         * Sum of the powers of the fewest cubes each game is possible with.
+         */
+        public long sumOfPowers() {
+            long sum = 0;
+            for (int i = 0; i < size; i++) {
+                sum += power(red[i], green[i], blue[i]);
+            }
+            return sum;
+        }
+
+        private long scan(int redLimit, int greenLimit, int blueLimit) {
+            long sum = 0;
+            for (int i = 0; i < size; i++) {
+                if (red[i] <= redLimit && green[i] <= greenLimit && blue[i] <= blueLimit) {
+                    sum += ids[i];
                 }
-                int id = Integer.parseInt(matcher.group("ID"));
-
-                List<Pick[]> pickSets = new ArrayList<>();
-                try (Scanner scanner1 = new Scanner(line.substring(matcher.end()))) {
-                    scanner1.useDelimiter(";");
-                    while (scanner1.hasNext()) {
-                        List<Pick> picks = new ArrayList<>();
-                        matcher = pickPattern.matcher(scanner1.next());
-                        while (matcher.find()) {
-                            int number = Integer.parseInt(matcher.group("NUMBER"));
-                            Color color = Color.valueOf(matcher.group("COLOR").toUpperCase());
-                            picks.add(Pick.of(color, number));
-                        }
-                        pickSets.add(picks.toArray(new Pick[0]));
-                    }
+            }
+            return sum;
+        }
+
+        /**
+         * Cell {@code x, y, z} holds the ids of games with maxima at most the {@code x}-th distinct red,
+         * {@code y}-th distinct green and {@code z}-th distinct blue (counted from one), index 0 is for none.
+         */
+        private long[] buildTable() {
+            int ny = greens.length + 1;
+            int nz = blues.length + 1;
+            long cells = (long) (reds.length + 1) * ny * nz;
+            if (cells > MAX_TABLE_SIZE) {
+                log.debug("Too many distinct maxima ({} cells), queries are going to scan the games", cells);
+                return null;
+            }
+            long[] sums = new long[(int) cells];
+            for (int i = 0; i < size; i++) {
+                int x = Arrays.binarySearch(reds, red[i]) + 1;
+                int y = Arrays.binarySearch(greens, green[i]) + 1;
+                int z = Arrays.binarySearch(blues, blue[i]) + 1;
+                sums[(x * ny + y) * nz + z] += ids[i];
+            }
+            // Prefix sums along one axis after the other
+            for (int i = nz; i < sums.length; i++) {
+                sums[i] += i / nz % ny > 0 ? sums[i - nz] : 0;
+            }
+            for (int i = ny * nz; i < sums.length; i++) {
+                sums[i] += sums[i - ny * nz];
+            }
+            for (int i = 1; i < sums.length; i++) {
+                sums[i] += i % nz > 0 ? sums[i - 1] : 0;
+            }
+            return sums;
+        }
+
+        private static int[] distinct(int[] values, int size) {
+            return Arrays.stream(values, 0, size).sorted().distinct().toArray();
+        }
+
+        private static int countAtMost(int[] sorted, int value) {
+            int index = Arrays.binarySearch(sorted, value);
+            return index >= 0 ? index + 1 : -index - 1;
+        }
+    }
+
+    @Override
+    public Games parseInput(MappedInput input) {
+        ByteTokenizer tokenizer = ByteTokenizer.of(input);
+
+        int size = 0;
+        int[] ids = new int[128];
+        int[][] columns = new int[Color.values().length][ids.length];
+        int[] maxima = new int[Color.values().length];
+        while (tokenizer.hasNext()) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                for (int color = 0; color < columns.length; color++) {
+                    columns[color] = Arrays.copyOf(columns[color], size * 2);
                 }
-                games.add(Game.of(id, pickSets.toArray(new Pick[0][])));
             }
-            return games;
+            ids[size] = parseGame(tokenizer, maxima);
+            for (int color = 0; color < columns.length; color++) {
+                columns[color][size] = maxima[color];
+            }
+            size++;
         }
+        return new Games(size, ids, columns[Color.RED.ordinal()], columns[Color.GREEN.ordinal()], columns[Color.BLUE.ordinal()]);
+    }
+
+    /**
+     * Parses a game into the most cubes of each color shown in one set, and returns its id.
+     */
+    private static int parseGame(ByteTokenizer tokenizer, int[] maxima) {
+        tokenizer.expect("Game");
+        int id = tokenizer.nextInt();
+        tokenizer.expect(':');
+
+        Arrays.fill(maxima, 0);
+        int[] set = new int[maxima.length];
+        do {
+            Arrays.fill(set, 0);
+            do {
+                int number = tokenizer.nextInt();
+                tokenizer.skipSpaces();
+                Color color = Color.fromLabel((char) tokenizer.peek());
+                if (color == null) {
+                    throw new RuntimeException("Unknown color at position " + tokenizer.position());
+                }
+                tokenizer.skipWord();
+                maxima[color.ordinal()] = Math.max(maxima[color.ordinal()], set[color.ordinal()] += number);
+            } while (tokenizer.accept(','));
+        } while (tokenizer.accept(';'));
+        tokenizer.expectEndOfLine();
+        return id;
     }
 }
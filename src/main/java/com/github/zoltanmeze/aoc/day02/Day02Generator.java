@@ -0,0 +1,36 @@
+package com.github.zoltanmeze.aoc.day02;
+
+import com.github.zoltanmeze.aoc.InputGenerator;
+
+import java.io.PrintWriter;
+import java.util.SplittableRandom;
+
+/**
+ * Games with one to six sets of cubes, each set shows every color at most once.
+ */
+public class Day02Generator implements InputGenerator {
+
+    private static final String[] COLORS = {"red", "green", "blue"};
+
+    @Override
+    public void generate(SplittableRandom random, int scale, PrintWriter out) {
+        for (int id = 1, games = 100 * scale; id <= games; id++) {
+            out.append("Game ").append(String.valueOf(id)).append(": ");
+            for (int set = 0, sets = random.nextInt(1, 7); set < sets; set++) {
+                if (set > 0) {
+                    out.append("; ");
+                }
+                int colors = random.nextInt(1, 1 << COLORS.length); // Non empty subset of the colors
+                boolean first = true;
+                for (int color = 0; color < COLORS.length; color++) {
+                    if ((colors & 1 << color) == 0) {
+                        continue;
+                    }
+                    out.append(first ? "" : ", ").append(String.valueOf(random.nextInt(1, 21))).append(' ').append(COLORS[color]);
+                    first = false;
+                }
+            }
+            out.append('\n');
+        }
+    }
+}
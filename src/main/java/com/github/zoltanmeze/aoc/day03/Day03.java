@@ -1,21 +1,25 @@
 package com.github.zoltanmeze.aoc.day03;
 
-import com.github.zoltanmeze.aoc.utilities.ResourceUtils;
-import lombok.SneakyThrows;
+import com.github.zoltanmeze.aoc.StreamingPuzzle;
+import com.github.zoltanmeze.aoc.utilities.Grid;
+import com.github.zoltanmeze.aoc.utilities.LineReader;
+import com.github.zoltanmeze.aoc.utilities.MappedInput;
+import com.github.zoltanmeze.aoc.utilities.MappedInput.Line;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.File;
-import java.io.FileReader;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Scanner;
-import java.util.function.BiConsumer;
-import java.util.function.Predicate;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Slf4j
-public class Day03 implements Runnable {
+public class Day03 implements StreamingPuzzle<Grid> {
+
+    private static final byte EMPTY = '.';
+    /**
+     * Fewest rows worth scanning in a band of their own.
+     */
+    private static final int MIN_BAND_HEIGHT = 256;
 
     public static void main(String[] args) {
         new Day03().run();
@@ -27,119 +31,234 @@ public class Day03 implements Runnable {
         log.info("Part two: {}", partTwo());
     }
 
-    public Object partOne() {
-        char[][] input = parseInput();
-        long sum = 0L;
-        for (int y = 0; y < input.length; y++) {
-            for (int x = 0; x < input[y].length; ) {
-                char ch = input[y][x];
-                if (!isNumber(ch)) {
-                    x++;
-                    continue;
-                }
-                long number = 0L;
-                int x1 = x;
-                do {
-                    number *= 10;
-                    number += ch - '0';
-                } while (++x < input[y].length && (isNumber(ch = input[y][x])));
-                if (checkAdjacent(x1, y, x - 1, y, input, this::isSymbol)) {
-                    sum += number;
+    @Override
+    public Object partOne(Grid input) {
+        return sumOfPartNumbers(input, bands(input));
+    }
+
+    @Override
+    public Object partTwo(Grid input) {
+        return sumOfGearRatios(input, bands(input));
+    }
+
+    public long sumOfPartNumbers(Grid input, int bands) {
+        return scanBands(input, false, bands).mapToLong(scanner -> scanner.partNumbers).sum();
+    }
+
+    public long sumOfGearRatios(Grid input, int bands) {
+        return scanBands(input, true, bands).mapToLong(scanner -> scanner.gearRatios).reduce(0L, Math::addExact);
+    }
+
+    /**
+     * One band for every core, as long as each band has enough rows to be worth it.
+     */
+    private int bands(Grid input) {
+        return Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), input.getHeight() / MIN_BAND_HEIGHT));
+    }
+
+    /**
+     * Splits the rows into bands scanned at the same time, the results are the same for any number of bands.
+     */
+    private Stream<RowScanner> scanBands(Grid input, boolean gears, int bands) {
+        int height = input.getHeight();
+        int count = Math.min(bands, height);
+        if (count <= 1) {
+            return Stream.of(scanBand(input, gears, 0, height));
+        }
+        return IntStream.range(0, count)
+            .parallel()
+            .mapToObj(band -> scanBand(input, gears, (int) ((long) height * band / count), (int) ((long) height * (band + 1) / count)));
+    }
+
+    /**
+     * Scans the rows of the band, and the halo rows above and below it for the numbers next to its gears.
+     * A band owns the numbers and gears in its own rows, so nothing is counted twice by neighbouring bands.
+     * Rows are copied into a ring of three like when streaming, rows outside the grid are left empty.
+     */
+    private RowScanner scanBand(Grid input, boolean gears, int from, int to) {
+        byte[][] rows = new byte[3][input.getWidth() + 2];
+        loadRow(input, from - 2, rows[Math.floorMod(from - 2, 3)]);
+        loadRow(input, from - 1, rows[Math.floorMod(from - 1, 3)]);
+        RowScanner scanner = new RowScanner(input.getWidth(), gears, from, to);
+        for (int y = from - 1; y <= to; y++) {
+            loadRow(input, y + 1, rows[Math.floorMod(y + 1, 3)]);
+            if (y >= 0 && y < input.getHeight()) {
+                scanner.scanRow(y, y >= from && y < to,
+                    rows[Math.floorMod(y - 1, 3)], 0, rows[Math.floorMod(y, 3)], 0, rows[Math.floorMod(y + 1, 3)], 0);
+            }
+            scanner.finishRow(y - 1);
+        }
+        return scanner;
+    }
+
+    private static void loadRow(Grid input, int y, byte[] row) {
+        Arrays.fill(row, EMPTY);
+        if (y >= 0 && y < input.getHeight()) {
+            input.copyRow(y, row, 1);
+        }
+    }
+
+    @Override
+    public Object streamPartOne(LineReader lines) {
+        return stream(lines, false).partNumbers;
+    }
+
+    @Override
+    public Object streamPartTwo(LineReader lines) {
+        return stream(lines, true).gearRatios;
+    }
+
+    /**
+     * Only three rows are kept in a ring: a row is scanned once the row below it has been read,
+     * and its row slot is reused for the row after that.
+     */
+    private RowScanner stream(LineReader lines, boolean gears) {
+        if (!lines.hasNextLine()) {
+            throw new RuntimeException("Empty schematic");
+        }
+        Line first = lines.nextLine();
+        int width = first.length();
+        byte[][] rows = new byte[3][width + 2];
+        for (byte[] row : rows) {
+            Arrays.fill(row, EMPTY);
+        }
+        first.asByteBuffer().get(rows[0], 1, width);
+
+        RowScanner scanner = new RowScanner(width, gears, 0, Integer.MAX_VALUE);
+        for (int y = 0; ; y++) {
+            byte[] below = rows[(y + 1) % 3];
+            boolean last = !lines.hasNextLine();
+            if (last) {
+                Arrays.fill(below, EMPTY);
+            } else {
+                Line line = lines.nextLine();
+                if (line.length() != width) {
+                    throw new RuntimeException("Line " + (y + 1) + " has different width than the first line");
                 }
+                line.asByteBuffer().get(below, 1, width);
+            }
+            scanner.scanRow(y, true, rows[(y + 2) % 3], 0, rows[y % 3], 0, below, 0);
+            scanner.finishRow(y - 1);
+            if (last) {
+                scanner.finishRow(y);
+                return scanner;
             }
         }
-        return sum;
     }
 
-    public Object partTwo() {
-        char[][] input = parseInput();
-        Map<Integer, Map<Integer, List<Long>>> results = new HashMap<>();
-        for (int y = 0; y < input.length; y++) {
-            for (int x = 0; x < input[y].length; ) {
-                char ch = input[y][x];
-                if (!isNumber(ch)) {
+    /**
+     * Sums part numbers and gear ratios row by row, each row is scanned together with the rows above and below it.
+     * Rows are {@code width + 2} bytes from their start, with an empty cell on both sides.
+     * <p>
+     * Gears are only complete once the row below them is scanned, so the candidates of the last three rows are
+     * kept in a ring of primitive arrays, a row is counted and cleared by {@link #finishRow(int)}.
+     * Only the gears in the owned rows are counted.
+     */
+    private static final class RowScanner {
+
+        private final int width;
+        private final int gearsFrom;
+        private final int gearsTo;
+        private final byte[][] counts;
+        private final long[][] products;
+        private long partNumbers;
+        private long gearRatios;
+
+        RowScanner(int width, boolean gears, int gearsFrom, int gearsTo) {
+            this.width = width;
+            this.gearsFrom = gearsFrom;
+            this.gearsTo = gearsTo;
+            this.counts = gears ? new byte[3][width + 2] : null;
+            this.products = gears ? new long[3][width + 2] : null;
+        }
+
+        /**
+         * Scans the numbers of the row, part numbers are only summed if asked for,
+         * the row may only be scanned for the gears around it.
+         */
+        void scanRow(int y, boolean partNumbers, byte[] above, int aboveStart, byte[] row, int rowStart, byte[] below, int belowStart) {
+            for (int x = 1; x <= width; ) {
+                if (!isNumber(row[rowStart + x])) {
                     x++;
                     continue;
                 }
                 long number = 0L;
-                int x1 = x;
+                int from = x;
                 do {
-                    number *= 10;
-                    number += ch - '0';
-                } while (++x < input[y].length && (isNumber(ch = input[y][x])));
-                long finalNumber = number;
-                checkAdjacent(x1, y, x - 1, y, input, c -> c == '*', (targetX, targetY) ->
-                    results.computeIfAbsent(targetY, HashMap::new)
-                        .computeIfAbsent(targetX, ArrayList::new)
-                        .add(finalNumber));
+                    number = number * 10 + row[rowStart + x] - '0';
+                } while (isNumber(row[rowStart + ++x]));
+                int to = x - 1;
+
+                if (partNumbers && checkAdjacent(above, aboveStart, row, rowStart, below, belowStart, from, to)) {
+                    this.partNumbers += number;
+                }
+                if (counts != null) {
+                    for (int i = from - 1; i <= to + 1; i++) {
+                        addGear(above, aboveStart, y - 1, i, number);
+                        addGear(below, belowStart, y + 1, i, number);
+                    }
+                    addGear(row, rowStart, y, from - 1, number);
+                    addGear(row, rowStart, y, to + 1, number);
+                }
             }
         }
-        return results.values()
-            .stream()
-            .flatMap(x -> x.values()
-                .stream()
-                .filter(y -> y.size() == 2)
-                .map(y -> y.stream().reduce(1L, Math::multiplyExact)))
-            .reduce(0L, Math::addExact);
-    }
 
-    private boolean checkAdjacent(int x1, int y1, int x2, int y2, char[][] arr, Predicate<Character> predicate) {
-        return checkAdjacent(x1, y1, x2, y2, arr, ((arr1, x, y) -> predicate.test(arr1[y][x])), true);
-    }
+        /**
+         * Counts the gears of the row, nothing can be adjacent to them anymore once the row below is scanned.
+         */
+        void finishRow(int y) {
+            if (counts == null || y < gearsFrom || y >= gearsTo) {
+                return;
+            }
+            byte[] rowCounts = counts[y % 3];
+            long[] rowProducts = products[y % 3];
+            for (int x = 1; x <= width; x++) {
+                if (rowCounts[x] == 2) {
+                    gearRatios = Math.addExact(gearRatios, rowProducts[x]);
+                }
+            }
+            Arrays.fill(rowCounts, (byte) 0);
+        }
+
+        private void addGear(byte[] row, int rowStart, int y, int x, long number) {
+            if (row[rowStart + x] != '*' || y < gearsFrom || y >= gearsTo) {
+                return;
+            }
+            byte[] rowCounts = counts[Math.floorMod(y, 3)];
+            long[] rowProducts = products[Math.floorMod(y, 3)];
+            if (rowCounts[x]++ < 2) {
+                rowProducts[x] = rowCounts[x] == 1 ? number : Math.multiplyExact(rowProducts[x], number);
+            }
+        }
 
-    private void checkAdjacent(int x1, int y1, int x2, int y2, char[][] arr, Predicate<Character> predicate, BiConsumer<Integer, Integer> consumer) {
-        checkAdjacent(x1, y1, x2, y2, arr, ((arr1, x, y) -> {
-            if (predicate.test(arr[y][x])) {
-                consumer.accept(x, y);
+        /**
+         * Checks the cells around the number between the two columns (inclusive) for symbols,
+         * rows have an empty cell on both sides so no bounds checks are needed.
+         */
+        private static boolean checkAdjacent(byte[] above, int aboveStart, byte[] row, int rowStart,
+                                             byte[] below, int belowStart, int from, int to) {
+            if (isSymbol(row[rowStart + from - 1]) || isSymbol(row[rowStart + to + 1])) {
                 return true;
             }
+            for (int x = from - 1; x <= to + 1; x++) {
+                if (isSymbol(above[aboveStart + x]) || isSymbol(below[belowStart + x])) {
+                    return true;
+                }
+            }
             return false;
-        }), false);
-    }
-
-    private boolean checkAdjacent(int x1, int y1, int x2, int y2, char[][] arr, AdjacentPredicate predicate, boolean lazy) {
-        if (x1 > x2 || y1 > y2) {
-            throw new RuntimeException("Invalid arguments");
-        } else if (y1 < 0 || y2 >= arr.length || x1 < 0 || x2 >= arr[y1].length) {
-            throw new RuntimeException("Out of range");
-        }
-        boolean valid = false;
-        boolean[] checkY = {y1 - 1 >= 0, y2 + 1 < arr.length};
-        for (int x = Math.max(x1 - 1, 0), maxX = Math.min(x2 + 1, arr[y1].length - 1); x <= maxX && (!lazy || !valid); x++) {
-            valid = (checkY[0] && predicate.test(arr, x, y1 - 1)) || (checkY[1] && predicate.test(arr, x, y2 + 1));
         }
-        boolean[] checkX = {x1 - 1 >= 0, x2 + 1 < arr[y1].length};
-        for (int y = y1; y <= y2 && (!lazy || !valid); y++) {
-            valid = (checkX[0] && predicate.test(arr, x1 - 1, y)) || (checkX[1] && predicate.test(arr, x2 + 1, y));
-        }
-        return valid;
     }
 
-    private boolean isNumber(char ch) {
+    private static boolean isNumber(byte ch) {
         return ch >= '0' && ch <= '9';
     }
 
-    private boolean isSymbol(char ch) {
-        return ch != '.' && !isNumber(ch);
-    }
-
-    @FunctionalInterface
-    private interface AdjacentPredicate {
-        boolean test(char[][] arr, int x, int y);
+    private static boolean isSymbol(byte ch) {
+        return ch != EMPTY && !isNumber(ch);
     }
 
-    @SneakyThrows
-    private char[][] parseInput() {
-        File file = ResourceUtils.getResourceFile("day03.txt");
-        try (
-            FileReader fileReader = new FileReader(file);
-            Scanner scanner = new Scanner(fileReader)
-        ) {
-            List<char[]> lines = new ArrayList<>();
-            while (scanner.hasNextLine()) {
-                lines.add(scanner.nextLine().toCharArray());
-            }
-            return lines.toArray(new char[0][]);
-        }
+    @Override
+    public Grid parseInput(MappedInput input) {
+        return Grid.parse(input);
     }
 }
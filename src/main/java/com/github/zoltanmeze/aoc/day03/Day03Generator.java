@@ -0,0 +1,41 @@
+package com.github.zoltanmeze.aoc.day03;
+
+import com.github.zoltanmeze.aoc.InputGenerator;
+
+import java.io.PrintWriter;
+import java.util.SplittableRandom;
+
+/**
+ * Square engine schematic of numbers and symbols, written row by row so any size fits in memory.
+ * Numbers on the same row are always separated by at least one other character.
+ */
+public class Day03Generator implements InputGenerator {
+
+    private static final String SYMBOLS = "**#+$/=%@&-";
+
+    @Override
+    public void generate(SplittableRandom random, int scale, PrintWriter out) {
+        int side = InputGenerator.scaleSide(140, scale);
+        char[] row = new char[side];
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; ) {
+                int cell = random.nextInt(100);
+                if (cell < 10 && (x == 0 || !isNumber(row[x - 1]))) {
+                    int digits = Math.min(random.nextInt(1, 4), side - x);
+                    row[x++] = (char) ('1' + random.nextInt(9));
+                    for (int i = 1; i < digits; i++) {
+                        row[x++] = (char) ('0' + random.nextInt(10));
+                    }
+                } else {
+                    row[x++] = cell < 14 ? SYMBOLS.charAt(random.nextInt(SYMBOLS.length())) : '.';
+                }
+            }
+            out.write(row);
+            out.append('\n');
+        }
+    }
+
+    private static boolean isNumber(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+}
@@ -1,22 +1,19 @@
 package com.github.zoltanmeze.aoc.day04;
 
-import com.github.zoltanmeze.aoc.utilities.ResourceUtils;
+import com.github.zoltanmeze.aoc.StreamingPuzzle;
+import com.github.zoltanmeze.aoc.utilities.LineReader;
+import com.github.zoltanmeze.aoc.utilities.MappedInput;
+import com.github.zoltanmeze.aoc.utilities.MappedInput.Line;
 import lombok.Data;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.File;
-import java.io.FileReader;
 import java.util.ArrayList;
-import java.util.BitSet;
 import java.util.List;
-import java.util.Scanner;
-import java.util.regex.MatchResult;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Slf4j
-public class Day04 implements Runnable {
+public class Day04 implements StreamingPuzzle<Day04.ScratchCard[]> {
+
+    private static final String CARD = "Card";
 
     public static void main(String[] args) {
         new Day04().run();
@@ -28,8 +25,8 @@ public class Day04 implements Runnable {
         log.info("Part two: {}", partTwo());
     }
 
-    public Object partOne() {
-        ScratchCard[] input = parseInput();
+    @Override
+    public Object partOne(ScratchCard[] input) {
         long result = 0;
         for (var game : input) {
             int matches = game.numberOfMatches();
@@ -41,74 +38,170 @@ public class Day04 implements Runnable {
         return result;
     }
 
-    public Object partTwo() {
-        ScratchCard[] input = parseInput();
-        int[] cards = new int[input.length];
+    @Override
+    public Object partTwo(ScratchCard[] input) {
+        CardCopies copies = new CardCopies();
+        long result = 0;
+        for (ScratchCard card : input) {
+            result += copies.next(card.numberOfMatches());
+        }
+        return result;
+    }
+
+    @Override
+    public Object streamPartOne(LineReader lines) {
+        long[] numbers = new long[4];
         long result = 0;
-        for (int i = 0; i < input.length; i++) {
-            int multiplier = ++cards[i];
-            int matches = input[i].numberOfMatches();
-            for (int j = i + 1; j <= i + matches && j < input.length; j++) {
-                cards[j] += multiplier;
+        while (lines.hasNextLine()) {
+            int matches = numberOfMatches(lines.nextLine(), numbers);
+            if (matches == 0) {
+                continue;
             }
-            result += multiplier;
+            result += 1L << (matches - 1);
         }
         return result;
     }
 
+    @Override
+    public Object streamPartTwo(LineReader lines) {
+        long[] numbers = new long[4];
+        CardCopies copies = new CardCopies();
+        long result = 0;
+        while (lines.hasNextLine()) {
+            result += copies.next(numberOfMatches(lines.nextLine(), numbers));
+        }
+        return result;
+    }
+
+    /**
+     * Counts the copies of the cards one after the other. Every card adds its copies to a range of the next cards,
+     * kept as a difference array: added at the start of the range and taken away after its end,
+     * so the copies of a card are the running sum of the differences, no matter how many cards a card wins.
+     * Only the differences of the upcoming cards are kept, in a circular buffer grown if a card wins more.
+     */
+    private static final class CardCopies {
+
+        private long[] differences = new long[16];
+        private long running;
+        private int card;
+
+        /**
+         * Returns the copies of the next card (the original included), given its number of matches.
+         */
+        long next(int matches) {
+            if (matches + 1 >= differences.length) {
+                grow(matches + 2);
+            }
+            int mask = differences.length - 1;
+            running += differences[card & mask];
+            differences[card & mask] = 0;
+            long copies = running + 1;
+            differences[(card + 1) & mask] += copies;
+            differences[(card + matches + 1) & mask] -= copies;
+            card++;
+            return copies;
+        }
+
+        private void grow(int size) {
+            long[] grown = new long[Integer.highestOneBit(size - 1) << 1];
+            for (int i = card; i < card + differences.length; i++) {
+                grown[i & (grown.length - 1)] = differences[i & (differences.length - 1)];
+            }
+            differences = grown;
+        }
+    }
+
+    /**
+     * Card numbers are below 128, so both sets of numbers are packed into two longs, bit {@code n} of the low and
+     * high halves stands for {@code n} and {@code n + 64}.
+     */
     @Data(staticConstructor = "of")
-    private static class ScratchCard {
+    static class ScratchCard {
         private final int id;
-        private final BitSet winning;
-        private final BitSet played;
+        private final long winningLow;
+        private final long winningHigh;
+        private final long playedLow;
+        private final long playedHigh;
 
-        public BitSet matches() {
-            BitSet copy = (BitSet) winning.clone();
-            copy.and(played);
-            return copy;
+        public int numberOfMatches() {
+            return numberOfMatches(winningLow, winningHigh, playedLow, playedHigh);
         }
 
-        public int numberOfMatches() {
-            return matches().cardinality();
+        static int numberOfMatches(long winningLow, long winningHigh, long playedLow, long playedHigh) {
+            return Long.bitCount(winningLow & playedLow) + Long.bitCount(winningHigh & playedHigh);
         }
     }
 
-    @SneakyThrows
-    private ScratchCard[] parseInput() {
-        File file = ResourceUtils.getResourceFile("day04.txt");
-        try (
-            FileReader fileReader = new FileReader(file);
-            Scanner scanner = new Scanner(fileReader)
-        ) {
-            Pattern gamePattern = Pattern.compile("^Card\\s+(?<ID>\\d+): ");
-            Pattern numberPattern = Pattern.compile("\\d+");
-            List<ScratchCard> games = new ArrayList<>();
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                Matcher matcher = gamePattern.matcher(line);
-                if (!matcher.find()) {
-                    throw new RuntimeException();
-                }
-                int id = Integer.parseInt(matcher.group("ID"));
-                List<BitSet> numberSets = new ArrayList<>(2);
-                try (Scanner scanner1 = new Scanner(line.substring(matcher.end()))) {
-                    scanner1.useDelimiter("\\|");
-                    while (scanner1.hasNext()) {
-                        try (Scanner scanner2 = new Scanner(scanner1.next())) {
-                            BitSet numbers = scanner2.findAll(numberPattern)
-                                .map(MatchResult::group)
-                                .map(Integer::parseInt)
-                                .collect(BitSet::new, BitSet::set, BitSet::or);
-                            numberSets.add(numbers);
-                        }
-                    }
-                }
-                if (numberSets.size() != 2) {
-                    throw new RuntimeException();
+    @Override
+    public ScratchCard[] parseInput(MappedInput input) {
+        long[] numbers = new long[4];
+        List<ScratchCard> games = new ArrayList<>();
+        while (input.hasNextLine()) {
+            int id = parseCard(input.nextLine(), numbers);
+            games.add(ScratchCard.of(id, numbers[0], numbers[1], numbers[2], numbers[3]));
+        }
+        return games.toArray(new ScratchCard[0]);
+    }
+
+    private static int numberOfMatches(Line line, long[] numbers) {
+        parseCard(line, numbers);
+        return ScratchCard.numberOfMatches(numbers[0], numbers[1], numbers[2], numbers[3]);
+    }
+
+    /**
+     * Parses the bytes of a card line into the packed winning and played numbers (low and high halves of both),
+     * and returns the id of the card. Nothing is allocated.
+     */
+    private static int parseCard(Line line, long[] numbers) {
+        int colon = line.indexOf(':');
+        int bar = line.indexOf('|', colon + 1);
+        if (colon < CARD.length() || bar == -1 || !startsWithCard(line)) {
+            throw new RuntimeException("Expected 'Card <id>: <numbers> | <numbers>', found '" + line + "'");
+        }
+        int from = CARD.length();
+        while (from < colon && line.byteAt(from) == ' ') {
+            from++;
+        }
+        int id = line.parseInt(from, colon);
+        parseNumbers(line, colon + 1, bar, numbers, 0);
+        parseNumbers(line, bar + 1, line.length(), numbers, 2);
+        return id;
+    }
+
+    private static boolean startsWithCard(Line line) {
+        for (int i = 0; i < CARD.length(); i++) {
+            if (line.byteAt(i) != CARD.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void parseNumbers(Line line, int from, int to, long[] numbers, int offset) {
+        long low = 0L;
+        long high = 0L;
+        for (int i = from; i < to; ) {
+            byte ch = line.byteAt(i);
+            if (ch == ' ') {
+                i++;
+                continue;
+            } else if (ch < '0' || ch > '9') {
+                throw new RuntimeException("Expected number at position " + i + " of '" + line + "', found '" + (char) ch + "'");
+            }
+            int number = 0;
+            for (; i < to && (ch = line.byteAt(i)) >= '0' && ch <= '9'; i++) {
+                number = number * 10 + ch - '0';
+                if (number >= 128) {
+                    throw new RuntimeException("Card numbers have to be below 128, found " + line.subSequence(from, to));
                 }
-                games.add(ScratchCard.of(id, numberSets.get(0), numberSets.get(1)));
             }
-            return games.toArray(new ScratchCard[0]);
+            if (number < 64) {
+                low |= 1L << number;
+            } else {
+                high |= 1L << number; // Shifts are modulo 64
+            }
         }
+        numbers[offset] = low;
+        numbers[offset + 1] = high;
     }
 }
@@ -0,0 +1,70 @@
+package com.github.zoltanmeze.aoc.day04;
+
+import com.github.zoltanmeze.aoc.InputGenerator;
+
+import java.io.PrintWriter;
+import java.util.SplittableRandom;
+
+/**
+ * Scratch cards of 10 winning and 25 played numbers between 1 and 99.
+ * Most cards have no matches and the rest only a few, so the number of card copies in part two stays bounded
+ * no matter how many cards there are (on average a card is won by less than one earlier card).
+ */
+public class Day04Generator implements InputGenerator {
+
+    private static final int WINNING = 10;
+    private static final int PLAYED = 25;
+
+    @Override
+    public void generate(SplittableRandom random, int scale, PrintWriter out) {
+        int cards = 200 * scale;
+        int idWidth = Math.max(String.valueOf(cards).length(), 3);
+        int[] numbers = new int[99];
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = i + 1;
+        }
+        for (int id = 1; id <= cards; id++) {
+            int matches = random.nextInt(10) < 6 ? 0 : random.nextInt(1, 4);
+            // First the winning numbers, then the played ones, the matches are shared by both
+            shuffle(random, numbers, WINNING + PLAYED - matches);
+
+            out.append("Card");
+            append(out, id, idWidth + 1).append(':');
+            for (int i = 0; i < WINNING; i++) {
+                append(out, numbers[i], 3);
+            }
+            out.append(" |");
+            int[] played = new int[PLAYED];
+            System.arraycopy(numbers, 0, played, 0, matches);
+            System.arraycopy(numbers, WINNING, played, matches, PLAYED - matches);
+            shuffle(random, played, PLAYED);
+            for (int number : played) {
+                append(out, number, 3);
+            }
+            out.append('\n');
+        }
+    }
+
+    /**
+     * Appends the number right aligned to the width.
+     */
+    private static PrintWriter append(PrintWriter out, int number, int width) {
+        String digits = String.valueOf(number);
+        for (int i = digits.length(); i < width; i++) {
+            out.append(' ');
+        }
+        return out.append(digits);
+    }
+
+    /**
+     * Partial Fisher-Yates shuffle, moves a random selection to the first {@code count} elements.
+     */
+    private static void shuffle(SplittableRandom random, int[] numbers, int count) {
+        for (int i = 0; i < count; i++) {
+            int j = random.nextInt(i, numbers.length);
+            int temp = numbers[i];
+            numbers[i] = numbers[j];
+            numbers[j] = temp;
+        }
+    }
+}
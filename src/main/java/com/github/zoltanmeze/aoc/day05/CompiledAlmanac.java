@@ -0,0 +1,229 @@
+package com.github.zoltanmeze.aoc.day05;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The whole chain of maps from seeds to locations composed into a single piecewise function: numbers from
+ * {@code starts[i]} (inclusive) to {@code starts[i + 1]} (exclusive) are moved by {@code offsets[i]}.
+ * Looking up a seed is a single binary search, and a range of seeds maps to the pieces it overlaps.
+ * <p>
+ * Numbers have to be between 0 and {@code 2^62}, numbers not covered by any map are mapped to themselves.
+ * The function is immutable, any number of threads can use it at the same time.
+ */
+public final class CompiledAlmanac {
+
+    static final long LIMIT = 1L << 62;
+    /**
+     * Seeds mapped in one go by a single thread, larger batches are split between the threads of the pool.
+     */
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private final long[] starts;
+    private final long[] offsets;
+
+    private CompiledAlmanac(long[] starts, long[] offsets) {
+        this.starts = starts;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Composes the stages one after the other, each stage is given as {@code destination, source, length}
+     * triples, on overlapping ranges the first one of the stage wins.
+     */
+    static CompiledAlmanac compile(Iterable<long[]> stages) {
+        CompiledAlmanac function = new CompiledAlmanac(new long[] {0L}, new long[] {0L});
+        for (long[] stage : stages) {
+            function = function.andThen(ofStage(stage));
+        }
+        return function;
+    }
+
+    /**
+     * Piecewise function of a single stage, ranges are painted over each other from the last to the first one.
+     */
+    static CompiledAlmanac ofStage(long[] mappings) {
+        if (mappings.length % 3 != 0) {
+            throw new IllegalArgumentException("Mappings have to be destination, source, length triples");
+        }
+        TreeMap<Long, Long> pieces = new TreeMap<>(Map.of(0L, 0L, LIMIT, 0L));
+        for (int i = mappings.length - 3; i >= 0; i -= 3) {
+            long destination = mappings[i];
+            long source = mappings[i + 1];
+            long length = mappings[i + 2];
+            if (length <= 0) {
+                continue;
+            } else if (source < 0 || destination < 0 || source > LIMIT - length || destination > LIMIT - length) {
+                throw new RuntimeException("Range of " + length + " from " + source + " to " + destination + " is out of bounds");
+            }
+            long end = source + length;
+            long offsetAtEnd = pieces.floorEntry(end).getValue();
+            pieces.subMap(source, true, end, true).clear();
+            pieces.put(source, destination - source);
+            pieces.put(end, offsetAtEnd);
+        }
+        pieces.remove(LIMIT);
+
+        long[] starts = new long[pieces.size()];
+        long[] offsets = new long[pieces.size()];
+        int size = 0;
+        for (Map.Entry<Long, Long> piece : pieces.entrySet()) {
+            if (size == 0 || offsets[size - 1] != piece.getValue()) {
+                starts[size] = piece.getKey();
+                offsets[size++] = piece.getValue();
+            }
+        }
+        return new CompiledAlmanac(Arrays.copyOf(starts, size), Arrays.copyOf(offsets, size));
+    }
+
+    /**
+     * Function applying this one first, and the next one to its result. Every piece of this function is moved
+     * as a whole, so its image is cut by the pieces of the next function.
+     */
+    CompiledAlmanac andThen(CompiledAlmanac next) {
+        long[] composedStarts = new long[starts.length + next.starts.length];
+        long[] composedOffsets = new long[composedStarts.length];
+        int size = 0;
+        for (int i = 0; i < starts.length; i++) {
+            long offset = offsets[i];
+            long from = starts[i] + offset;
+            long to = end(i) + offset;
+            for (int j = next.pieceOf(from); j < next.starts.length && next.starts[j] < to; j++) {
+                long start = Math.max(from, next.starts[j]) - offset;
+                long composedOffset = offset + next.offsets[j];
+                if (size > 0 && composedOffsets[size - 1] == composedOffset) {
+                    continue; // Continues the previous piece
+                }
+                if (size == composedStarts.length) {
+                    composedStarts = Arrays.copyOf(composedStarts, size * 2);
+                    composedOffsets = Arrays.copyOf(composedOffsets, size * 2);
+                }
+                composedStarts[size] = start;
+                composedOffsets[size++] = composedOffset;
+            }
+        }
+        return new CompiledAlmanac(Arrays.copyOf(composedStarts, size), Arrays.copyOf(composedOffsets, size));
+    }
+
+    public long map(long value) {
+        if (value < 0 || value >= LIMIT) {
+            return value;
+        }
+        int piece = pieceOf(value);
+        return value + offsets[piece];
+    }
+
+    /**
+     * Smallest number the range (both ends inclusive) is mapped to, the lowest point of each piece it overlaps.
+     */
+    public long minimum(long from, long to) {
+        if (from > to) {
+            throw new IllegalArgumentException("Empty range [" + from + ", " + to + "]");
+        } else if (from < 0 || to >= LIMIT) {
+            throw new IllegalArgumentException("Range [" + from + ", " + to + "] is out of bounds");
+        }
+        long minimum = Long.MAX_VALUE;
+        for (int i = pieceOf(from); i < starts.length && starts[i] <= to; i++) {
+            minimum = Math.min(minimum, Math.max(from, starts[i]) + offsets[i]);
+        }
+        return minimum;
+    }
+
+    /**
+     * Image of the range (both ends inclusive) as start and end pairs, one range for each piece it overlaps.
+     */
+    public long[] image(long from, long to) {
+        if (from > to) {
+            return new long[0];
+        } else if (from < 0 || to >= LIMIT) {
+            throw new IllegalArgumentException("Range [" + from + ", " + to + "] is out of bounds");
+        }
+        int first = pieceOf(from);
+        int last = pieceOf(to);
+        long[] ranges = new long[2 * (last - first + 1)];
+        for (int i = first; i <= last; i++) {
+            ranges[2 * (i - first)] = Math.max(from, starts[i]) + offsets[i];
+            ranges[2 * (i - first) + 1] = Math.min(to, end(i) - 1) + offsets[i];
+        }
+        return ranges;
+    }
+
+    /**
+     * Smallest number any of the values is mapped to, large arrays are split into chunks mapped in parallel
+     * on the common pool.
+     */
+    public long minimumOf(long[] values) {
+        return minimumOf(values, ForkJoinPool.commonPool());
+    }
+
+    public long minimumOf(long[] values, ForkJoinPool pool) {
+        if (values.length <= CHUNK_SIZE) {
+            return minimumOf(values, 0, values.length);
+        }
+        return pool.invoke(new MinimumTask(this, values, 0, values.length));
+    }
+
+    private long minimumOf(long[] values, int from, int to) {
+        long minimum = Long.MAX_VALUE;
+        for (int i = from; i < to; i++) {
+            minimum = Math.min(minimum, map(values[i]));
+        }
+        return minimum;
+    }
+
+    /**
+     * Halves the values until they fit into a chunk, and takes the smaller minimum of the two halves.
+     */
+    private static final class MinimumTask extends RecursiveTask<Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final CompiledAlmanac function;
+        private final long[] values;
+        private final int from;
+        private final int to;
+
+        MinimumTask(CompiledAlmanac function, long[] values, int from, int to) {
+            this.function = function;
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= CHUNK_SIZE) {
+                return function.minimumOf(values, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            MinimumTask left = new MinimumTask(function, values, from, middle);
+            left.fork();
+            long right = new MinimumTask(function, values, middle, to).compute();
+            return Math.min(left.join(), right);
+        }
+    }
+
+    public int pieces() {
+        return starts.length;
+    }
+
+    long start(int piece) {
+        return starts[piece];
+    }
+
+    long end(int piece) {
+        return piece + 1 < starts.length ? starts[piece + 1] : LIMIT;
+    }
+
+    long offset(int piece) {
+        return offsets[piece];
+    }
+
+    int pieceOf(long value) {
+        int index = Arrays.binarySearch(starts, value);
+        return index >= 0 ? index : -index - 2;
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.zoltanmeze.aoc.day05;
+
+import com.github.zoltanmeze.aoc.InputGenerator;
+
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Almanac of seed ranges and the seven maps between seeds and locations, numbers are below {@code 2^32}.
+ * Every map cuts the number line into segments and shuffles them, so the ranges of a map never overlap
+ * (part of the segments are left out and map to themselves).
+ */
+public class Day05Generator implements InputGenerator {
+
+    private static final String[] CATEGORIES = {
+        "seed", "soil", "fertilizer", "water", "light", "temperature", "humidity", "location"
+    };
+    private static final long LIMIT = 1L << 32;
+
+    @Override
+    public void generate(SplittableRandom random, int scale, PrintWriter out) {
+        out.append("seeds:");
+        for (int i = 0, seeds = 10 * scale; i < seeds; i++) {
+            long length = random.nextLong(1_000_000, 500_000_000);
+            out.append(' ').append(String.valueOf(random.nextLong(LIMIT - length))).append(' ').append(String.valueOf(length));
+        }
+        out.append('\n');
+
+        int segments = 40 * scale;
+        for (int category = 0; category < CATEGORIES.length - 1; category++) {
+            out.append('\n').append(CATEGORIES[category]).append("-to-").append(CATEGORIES[category + 1]).append(" map:\n");
+
+            long[] cuts = new long[segments + 1];
+            for (int i = 1; i < segments; i++) {
+                cuts[i] = random.nextLong(1, LIMIT);
+            }
+            cuts[segments] = LIMIT;
+            Arrays.sort(cuts);
+
+            int[] order = new int[segments];
+            for (int i = 0; i < segments; i++) {
+                int j = random.nextInt(i + 1);
+                order[i] = order[j];
+                order[j] = i;
+            }
+            long destination = 0L;
+            for (int segment : order) {
+                long length = cuts[segment + 1] - cuts[segment];
+                if (length > 0 && random.nextInt(10) > 0) {
+                    out.append(String.valueOf(destination)).append(' ')
+                        .append(String.valueOf(cuts[segment])).append(' ')
+                        .append(String.valueOf(length)).append('\n');
+                }
+                destination += length;
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.github.zoltanmeze.aoc.day05;
+
+import java.util.Arrays;
+
+/**
+ * Sorted set of disjoint, half open ranges of numbers stored as {@code start, end} pairs in a single array.
+ * Ranges touching or overlapping each other are always coalesced into one, so the set stays as small as possible.
+ */
+final class RangeSet {
+
+    private final long[] ranges;
+    private final int size;
+
+    private RangeSet(long[] ranges, int size) {
+        this.ranges = ranges;
+        this.size = size;
+    }
+
+    /**
+     * Set of the ranges given as {@code start, length} pairs, in any order.
+     */
+    static RangeSet ofLengths(long[] pairs) {
+        if (pairs.length % 2 != 0) {
+            throw new IllegalArgumentException("Ranges have to be start, length pairs");
+        }
+        long[] ranges = new long[pairs.length];
+        int size = 0;
+        for (int i = 0; i < pairs.length; i += 2) {
+            if (pairs[i + 1] > 0) {
+                ranges[2 * size] = pairs[i];
+                ranges[2 * size++ + 1] = pairs[i] + pairs[i + 1];
+            }
+        }
+        return coalesce(ranges, size);
+    }
+
+    /**
+     * Moves every range through the piecewise function. Both the ranges and the pieces are sorted, so they are
+     * swept together in a single pass, each range is cut where it crosses into the next piece.
+     * The moved fragments are sorted and coalesced again.
+     */
+    RangeSet map(CompiledAlmanac function) {
+        if (size > 0 && (ranges[0] < 0 || ranges[2 * size - 1] > CompiledAlmanac.LIMIT)) {
+            throw new IllegalArgumentException("Ranges " + this + " are out of bounds");
+        }
+        long[] mapped = new long[Math.max(2 * size, 16)];
+        int fragments = 0;
+        int piece = size == 0 ? 0 : function.pieceOf(ranges[0]);
+        for (int i = 0; i < size; i++) {
+            long start = ranges[2 * i];
+            long end = ranges[2 * i + 1];
+            while (function.end(piece) <= start) {
+                piece++;
+            }
+            for (long from = start; from < end; ) {
+                long to = Math.min(end, function.end(piece));
+                if (2 * fragments == mapped.length) {
+                    mapped = Arrays.copyOf(mapped, mapped.length * 2);
+                }
+                mapped[2 * fragments] = from + function.offset(piece);
+                mapped[2 * fragments++ + 1] = to + function.offset(piece);
+                if (to < end) {
+                    piece++;
+                }
+                from = to;
+            }
+        }
+        return coalesce(mapped, fragments);
+    }
+
+    int size() {
+        return size;
+    }
+
+    long start(int index) {
+        return ranges[2 * index];
+    }
+
+    long end(int index) {
+        return ranges[2 * index + 1];
+    }
+
+    /**
+     * Smallest number of the set.
+     */
+    long min() {
+        if (size == 0) {
+            throw new IllegalStateException("Empty set of ranges");
+        }
+        return ranges[0];
+    }
+
+    /**
+     * Sorts the ranges by their starts, and merges each range into the previous one if they touch or overlap.
+     */
+    private static RangeSet coalesce(long[] ranges, int size) {
+        sort(ranges, 0, size - 1);
+        long[] coalesced = new long[2 * size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            long start = ranges[2 * i];
+            long end = ranges[2 * i + 1];
+            if (count > 0 && start <= coalesced[2 * count - 1]) {
+                coalesced[2 * count - 1] = Math.max(coalesced[2 * count - 1], end);
+            } else {
+                coalesced[2 * count] = start;
+                coalesced[2 * count++ + 1] = end;
+            }
+        }
+        return new RangeSet(coalesced, count);
+    }
+
+    /**
+     * Quicksort of the pairs between the two pair indices (inclusive) by their starts.
+     */
+    private static void sort(long[] ranges, int low, int high) {
+        while (low < high) {
+            long pivot = ranges[2 * ((low + high) >>> 1)];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (ranges[2 * i] < pivot) {
+                    i++;
+                }
+                while (ranges[2 * j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(ranges, i++, j--);
+                }
+            }
+            // Recursing into the smaller half keeps the stack shallow
+            if (j - low < high - i) {
+                sort(ranges, low, j);
+                low = i;
+            } else {
+                sort(ranges, i, high);
+                high = j;
+            }
+        }
+    }
+
+    private static void swap(long[] ranges, int i, int j) {
+        long start = ranges[2 * i];
+        long end = ranges[2 * i + 1];
+        ranges[2 * i] = ranges[2 * j];
+        ranges[2 * i + 1] = ranges[2 * j + 1];
+        ranges[2 * j] = start;
+        ranges[2 * j + 1] = end;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            builder.append(i > 0 ? ", " : "").append('[').append(start(i)).append(", ").append(end(i)).append(')');
+        }
+        return builder.append(']').toString();
+    }
+}
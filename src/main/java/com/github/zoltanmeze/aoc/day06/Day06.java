@@ -1,18 +1,20 @@
 package com.github.zoltanmeze.aoc.day06;
 
-import com.github.zoltanmeze.aoc.utilities.ResourceUtils;
+import com.github.zoltanmeze.aoc.Puzzle;
+import com.github.zoltanmeze.aoc.utilities.ByteTokenizer;
+import com.github.zoltanmeze.aoc.utilities.MappedInput;
 import lombok.Data;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.File;
-import java.io.FileReader;
-import java.util.Scanner;
-import java.util.regex.MatchResult;
-import java.util.regex.Pattern;
+import java.math.BigInteger;
 
 @Slf4j
-public class Day06 implements Runnable {
+public class Day06 implements Puzzle<Day06.Race[]> {
+
+    /**
+     * Longest race its square still fits into a {@code long}, longer races are solved with {@link BigInteger}.
+     */
+    private static final long MAX_EXACT_TIME = 3_037_000_499L;
 
     public static void main(String[] args) {
         new Day06().run();
@@ -24,82 +26,141 @@ public class Day06 implements Runnable {
         log.info("Part two: {}", partTwo());
     }
 
-    public Object partOne() {
-        Race[] input = parseInput();
-
-        int results = 1;
+    @Override
+    public Object partOne(Race[] input) {
+        long results = 1;
         for (Race race : input) {
-            int minimumTime = 0;
-            do {
-                minimumTime = (int) Math.ceil((race.distance + 1d) / (race.time - minimumTime));
-            } while (((race.time - minimumTime) * minimumTime) <= race.distance);
-
-            results *= race.time + 1 - 2 * minimumTime;
+            results = Math.multiplyExact(results, waysToWin(race.time, race.distance));
         }
         return results;
     }
 
-    public Object partTwo() {
-        Race[] input = parseInput();
-
-        long time = 0;
-        long distance = 0;
+    /**
+     * Joining the numbers can take more digits than a {@code long} holds, only races which fit are solved on longs.
+     */
+    @Override
+    public Object partTwo(Race[] input) {
+        BigInteger time = BigInteger.ZERO;
+        BigInteger distance = BigInteger.ZERO;
 
         for (Race value : input) {
             time = append(time, value.time);
             distance = append(distance, value.distance);
         }
+        if (time.bitLength() < Long.SIZE && distance.bitLength() < Long.SIZE) {
+            return waysToWin(time.longValue(), distance.longValue());
+        }
+        return waysToWin(time, distance);
+    }
 
-        int minimumTime = 0;
-        do {
-            minimumTime = (int) Math.ceil((distance + 1d) / (time - minimumTime));
-        } while (((time - minimumTime) * minimumTime) <= distance);
+    /**
+     * Digits of the number written after the digits of the target.
+     */
+    private static BigInteger append(BigInteger target, long number) {
+        if (number < 0) {
+            throw new IllegalArgumentException("Only non-negative numbers can be joined, got " + number);
+        }
+        int digits = 1;
+        for (long rest = number; rest >= 10; rest /= 10) {
+            digits++;
+        }
+        return target.multiply(BigInteger.TEN.pow(digits)).add(BigInteger.valueOf(number));
+    }
 
-        return time + 1 - 2L * minimumTime;
+    /**
+     * Number of ways to beat the record, the hold times {@code h} with {@code h * (time - h) > distance}.
+     * <p>
+     * They lie strictly between the roots of {@code h^2 - time * h + distance}, so the shortest one is found from the
+     * integer square root of the discriminant, and the longest one is the same distance from the end of the race.
+     */
+    public static long waysToWin(long time, long distance) {
+        if (time < 0 || distance < 0) {
+            throw new IllegalArgumentException("Race of " + time + " ms with record " + distance + " mm");
+        } else if (time > MAX_EXACT_TIME) {
+            return waysToWin(BigInteger.valueOf(time), BigInteger.valueOf(distance)).longValueExact();
+        }
+        // Longest distance is reached holding for half of the race, nothing to count if the record is not below that
+        if (distance >= time / 2 * (time - time / 2)) {
+            return 0;
+        }
+        long root = sqrt(time * time - 4 * distance);
+        long shortest = (time - root) / 2;
+        // Integer root is at most one off the real one, so is the shortest hold time
+        while (shortest * (time - shortest) <= distance) {
+            shortest++;
+        }
+        return time - 2 * shortest + 1;
     }
 
-    private long append(long target, int number) {
-        if (number == 0) {
-            return target;
+    private static BigInteger waysToWin(BigInteger time, BigInteger distance) {
+        BigInteger half = time.shiftRight(1);
+        if (distance.compareTo(half.multiply(time.subtract(half))) >= 0) {
+            return BigInteger.ZERO;
+        }
+        BigInteger root = time.multiply(time).subtract(distance.shiftLeft(2)).sqrt();
+        BigInteger shortest = time.subtract(root).shiftRight(1);
+        while (shortest.multiply(time.subtract(shortest)).compareTo(distance) <= 0) {
+            shortest = shortest.add(BigInteger.ONE);
         }
-        return append(target, number / 10) * 10 + number % 10;
+        return time.subtract(shortest.shiftLeft(1)).add(BigInteger.ONE);
+    }
+
+    /**
+     * Answers a batch of races, given as time, distance pairs one after the other.
+     */
+    public static long[] waysToWin(long[] races) {
+        if (races.length % 2 != 0) {
+            throw new IllegalArgumentException("Races have to be time, distance pairs, got " + races.length + " numbers");
+        }
+        long[] ways = new long[races.length / 2];
+        for (int i = 0; i < ways.length; i++) {
+            ways[i] = waysToWin(races[2 * i], races[2 * i + 1]);
+        }
+        return ways;
+    }
+
+    /**
+     * Largest number which square is not above the value, the floating point root corrected by the few ulps it can be off.
+     */
+    private static long sqrt(long value) {
+        if (value < 2) {
+            return value;
+        }
+        long root = (long) Math.sqrt(value);
+        while (root > value / root) {
+            root--;
+        }
+        while (root + 1 <= value / (root + 1)) {
+            root++;
+        }
+        return root;
     }
 
     @Data(staticConstructor = "of")
-    private static class Race {
-        private final int time;
-        private final int distance;
+    static class Race {
+        private final long time;
+        private final long distance;
     }
 
-    @SneakyThrows
-    private Race[] parseInput() {
-        File file = ResourceUtils.getResourceFile("day06.txt");
-        try (
-            FileReader fileReader = new FileReader(file);
-            Scanner scanner = new Scanner(fileReader)
-        ) {
-            Pattern pattern = Pattern.compile("\\d+");
-            if (!scanner.hasNextLine()) {
-                throw new RuntimeException();
-            }
-            int[] times = pattern.matcher(scanner.nextLine()).results()
-                .map(MatchResult::group)
-                .mapToInt(Integer::parseInt)
-                .toArray();
-
-            if (!scanner.hasNextLine()) {
-                throw new RuntimeException();
-            }
-            int[] distances = pattern.matcher(scanner.nextLine()).results()
-                .map(MatchResult::group)
-                .mapToInt(Integer::parseInt)
-                .toArray();
-
-            Race[] races = new Race[times.length];
-            for (int i = 0; i < times.length; i++) {
-                races[i] = Race.of(times[i], distances[i]);
-            }
-            return races;
+    @Override
+    public Race[] parseInput(MappedInput input) {
+        ByteTokenizer tokenizer = ByteTokenizer.of(input);
+
+        tokenizer.expect("Time:");
+        long[] times = tokenizer.nextLongs();
+        tokenizer.expectEndOfLine();
+
+        tokenizer.expect("Distance:");
+        long[] distances = tokenizer.nextLongs();
+        tokenizer.expectEndOfLine();
+
+        if (times.length != distances.length) {
+            throw new RuntimeException();
+        }
+        Race[] races = new Race[times.length];
+        for (int i = 0; i < times.length; i++) {
+            races[i] = Race.of(times[i], distances[i]);
         }
+        return races;
     }
 }
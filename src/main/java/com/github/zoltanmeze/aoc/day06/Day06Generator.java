@@ -0,0 +1,35 @@
+package com.github.zoltanmeze.aoc.day06;
+
+import com.github.zoltanmeze.aoc.InputGenerator;
+
+import java.io.PrintWriter;
+import java.util.SplittableRandom;
+
+/**
+ * Four races with two digit times and three digit record distances that can be beaten.
+ * Part two joins the digits of every race into a single race, so the input can't grow without overflowing
+ * the joined numbers, the scale is ignored.
+ */
+public class Day06Generator implements InputGenerator {
+
+    private static final int RACES = 4;
+
+    @Override
+    public void generate(SplittableRandom random, int scale, PrintWriter out) {
+        int[] times = new int[RACES];
+        int[] distances = new int[RACES];
+        for (int i = 0; i < RACES; i++) {
+            times[i] = random.nextInt(40, 100);
+            distances[i] = random.nextInt(100, Math.min(1000, times[i] * times[i] / 4));
+        }
+        out.append("Time:    ");
+        for (int time : times) {
+            out.append(String.format("%7d", time));
+        }
+        out.append("\nDistance:");
+        for (int distance : distances) {
+            out.append(String.format("%7d", distance));
+        }
+        out.append('\n');
+    }
+}
@@ -1,26 +1,37 @@
 package com.github.zoltanmeze.aoc.day07;
 
+import com.github.zoltanmeze.aoc.StreamingPuzzle;
 import com.github.zoltanmeze.aoc.utilities.EnumUtils;
-import com.github.zoltanmeze.aoc.utilities.ResourceUtils;
-import lombok.Data;
+import com.github.zoltanmeze.aoc.utilities.LineReader;
+import com.github.zoltanmeze.aoc.utilities.MappedInput;
+import com.github.zoltanmeze.aoc.utilities.MappedInput.Line;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.File;
-import java.io.FileReader;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Scanner;
 
 @Slf4j
-public class Day07 implements Runnable {
+public class Day07 implements StreamingPuzzle<Day07.Hands> {
+
+    private static final int HAND_SIZE = 5;
+    private static final Card[] CARDS = Card.values();
+    private static final HandType[] HAND_TYPES = HandType.values();
+    private static final int HAND_KEYS = (int) Math.pow(CARDS.length, HAND_SIZE);
+    /**
+     * Ordinal of the hand type of every hand, by the base 13 number of its card strengths, with and without jokers.
+     */
+    private static final byte[] HAND_TYPE_TABLE = buildHandTypeTable(false);
+    private static final byte[] JOKER_HAND_TYPE_TABLE = buildHandTypeTable(true);
+
+    // Layout of the sort keys: hand type, 4 bits for each card, and the bid in the lowest 32 bits
+    private static final int CARD_BITS = 4;
+    private static final int HAND_BITS = CARD_BITS * HAND_SIZE;
+    private static final int HAND_SHIFT = Integer.SIZE;
+    private static final long BID_MASK = (1L << HAND_SHIFT) - 1;
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX_MASK = (1 << RADIX_BITS) - 1;
 
     public static void main(String[] args) {
         new Day07().run();
@@ -32,110 +43,252 @@ public class Day07 implements Runnable {
         log.info("Part two: {}", partTwo());
     }
 
-    public Object partOne() {
-        List<Hand> input = parseInput();
+    @Override
+    public Object partOne(Hands input) {
+        return totalWinnings(input, false);
+    }
 
-        final int[] rank = {input.size()};
+    @Override
+    public Object partTwo(Hands input) {
+        return totalWinnings(input, true);
+    }
 
-        Map<Hand, HandType> cachedHandTypes = new HashMap<>(input.size());
+    /**
+     * Every hand is packed into a sort key from the strongest to the weakest hand, the bid is carried along in the
+     * lowest bits. Only the bits of the hand are sorted, with a stable radix sort, so equal hands keep their input
+     * order and the bids can't change their ranks.
+     */
+    private long totalWinnings(Hands input, boolean treatJackAsJoker) {
+        long[] keys = new long[input.size];
+        for (int i = 0; i < input.size; i++) {
+            keys[i] = sortKey(input.cards[i], input.bids[i], treatJackAsJoker);
+        }
+        radixSort(keys, keys.length);
 
-        Comparator<Hand> comparator = Comparator.comparing((Hand hand) ->
-                cachedHandTypes.computeIfAbsent(hand, h -> h.getHandType(false)))
-            .thenComparing(Hand::getCards, Arrays::compare);
+        long sum = 0;
+        for (int i = 0; i < keys.length; i++) {
+            sum += (keys.length - i) * bidOf(keys[i]);
+        }
+        return sum;
+    }
 
-        return input.stream()
-            .sorted(comparator)
-            .mapToLong(Hand::getBid)
-            .map(x -> rank[0]-- * x)
-            .reduce(0L, Long::sum);
+    @Override
+    public Object streamPartOne(LineReader lines) {
+        return streamTotalWinnings(lines, false);
     }
 
-    public Object partTwo() {
-        List<Hand> input = parseInput();
+    @Override
+    public Object streamPartTwo(LineReader lines) {
+        return streamTotalWinnings(lines, true);
+    }
 
-        final int[] rank = {input.size()};
+    /**
+     * Same as part one, but the hands are sorted on disk by an {@link ExternalHandSort} to keep memory bounded.
+     */
+    public Object externalPartOne(LineReader lines) {
+        return ExternalHandSort.ofTemporaryDirectory().totalWinnings(lines, false);
+    }
 
-        Map<Hand, HandType> cachedHandTypes = new HashMap<>(input.size());
+    public Object externalPartTwo(LineReader lines) {
+        return ExternalHandSort.ofTemporaryDirectory().totalWinnings(lines, true);
+    }
 
-        Comparator<Hand> comparator = Comparator.comparing((Hand hand) ->
-                cachedHandTypes.computeIfAbsent(hand, h -> h.getHandType(true)))
-            .thenComparing(Hand::getCards, (cards1, cards2) ->
-                Arrays.compare(cards1, cards2, (card1, card2) -> {
-                    var ordinal1 = card1 == Card.JACK ? Integer.MAX_VALUE : card1.ordinal();
-                    var ordinal2 = card2 == Card.JACK ? Integer.MAX_VALUE : card2.ordinal();
-                    return Integer.compare(ordinal1, ordinal2);
-                }));
+    /**
+     * Type of the hand in the highest bits, then the strength of each card in 4 bits, and the bid in the lowest
+     * 32 bits. The stronger the hand the smaller the key.
+     */
+    static long sortKey(int cards, int bid, boolean treatJackAsJoker) {
+        int key = 0;
+        long strengths = 0;
+        for (int i = 0, divisor = HAND_KEYS / CARDS.length; i < HAND_SIZE; i++, divisor /= CARDS.length) {
+            int strength = strength(CARDS[cards / divisor % CARDS.length], treatJackAsJoker);
+            key = key * CARDS.length + strength;
+            strengths = strengths << CARD_BITS | strength;
+        }
+        long handType = handTypeTable(treatJackAsJoker)[key];
+        return (handType << HAND_BITS | strengths) << HAND_SHIFT | bid;
+    }
 
-        return input.stream()
-            .sorted(comparator)
-            .mapToLong(Hand::getBid)
-            .map(x -> rank[0]-- * x)
-            .reduce(0L, Long::sum);
+    /**
+     * Base 13 number of the card strengths of the hand in the mode, the index of the hand in the hand type tables.
+     */
+    private static int strengthKey(int cards, boolean treatJackAsJoker) {
+        int key = 0;
+        for (int divisor = HAND_KEYS / CARDS.length; divisor > 0; divisor /= CARDS.length) {
+            key = key * CARDS.length + strength(CARDS[cards / divisor % CARDS.length], treatJackAsJoker);
+        }
+        return key;
     }
 
-    @Data(staticConstructor = "of")
-    private static class Hand {
+    /**
+     * LSD radix sort of the hand bits of the first keys, one byte at a time, the bits of the bid are left in input order.
+     */
+    static void radixSort(long[] keys, int size) {
+        if (size == 0) {
+            return;
+        }
+        long[] buffer = new long[size];
+        long[] from = keys;
+        long[] to = buffer;
+        int[] counts = new int[1 << RADIX_BITS];
+        for (int shift = HAND_SHIFT; shift < Long.SIZE; shift += RADIX_BITS) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < size; i++) {
+                counts[(int) (from[i] >>> shift) & RADIX_MASK]++;
+            }
+            if (counts[(int) (from[0] >>> shift) & RADIX_MASK] == size) {
+                continue; // Every key has the same digit
+            }
+            for (int digit = 0, offset = 0; digit < counts.length; digit++) {
+                int count = counts[digit];
+                counts[digit] = offset;
+                offset += count;
+            }
+            for (int i = 0; i < size; i++) {
+                to[counts[(int) (from[i] >>> shift) & RADIX_MASK]++] = from[i];
+            }
+            long[] swap = from;
+            from = to;
+            to = swap;
+        }
+        if (from != keys) {
+            System.arraycopy(from, 0, keys, 0, size);
+        }
+    }
 
-        private final Card[] cards;
-        private final int bid;
+    /**
+     * Hand bits of the key, equal for equal hands.
+     */
+    static long handOf(long key) {
+        return key >>> HAND_SHIFT;
+    }
 
-        private HandType getHandType(boolean treatJackAsJoker) {
-            int[] indexes = new int[cards.length];
-            int[] frequencies = new int[Card.values().length];
+    static long bidOf(long key) {
+        return key & BID_MASK;
+    }
 
-            int lastIndex = 0;
-            int jokers = 0;
+    /**
+     * Instead of keeping the hands to sort them, the bids are tallied by hand, as there are only
+     * {@code 13^5} different hands. Equal hands keep their input order when sorted, so their ranks
+     * are consecutive: {@code bids * topRank - sum(handsBefore * bid)} gives the winnings of a hand no matter
+     * where it ends up. Ranks are handed out at the end, walking the hands from the strongest to the weakest.
+     */
+    private long streamTotalWinnings(LineReader lines, boolean treatJackAsJoker) {
+        int[] counts = new int[HAND_KEYS];
+        long[] bids = new long[HAND_KEYS];
+        long[] weightedBids = new long[HAND_KEYS];
+        long total = 0;
+        while (lines.hasNextLine()) {
+            Line line = lines.nextLine();
+            int key = strengthKey(parseCards(line), treatJackAsJoker);
+            int bid = parseBid(line);
+            bids[key] += bid;
+            weightedBids[key] += (long) counts[key]++ * bid;
+            total++;
+        }
 
-            for (Card card : cards) {
-                if (treatJackAsJoker && card == Card.JACK) {
-                    jokers++;
-                    continue;
-                }
-                if (frequencies[card.ordinal()]++ == 0) {
-                    indexes[lastIndex++] = card.ordinal();
+        byte[] handTypes = handTypeTable(treatJackAsJoker);
+        long rank = total;
+        long sum = 0;
+        for (int type = 0; type < HAND_TYPES.length; type++) {
+            for (int key = 0; key < HAND_KEYS; key++) {
+                if (counts[key] > 0 && handTypes[key] == type) {
+                    sum += rank * bids[key] - weightedBids[key];
+                    rank -= counts[key];
                 }
             }
-            char[] ch = new char[Math.max(lastIndex, 1)];
-            for (int i = 0; i < lastIndex - 1; i++) {
-                for (int j = i + 1; j < lastIndex; j++) {
-                    if (frequencies[indexes[i]] < frequencies[indexes[j]]) {
-                        var temp = indexes[i];
-                        indexes[i] = indexes[j];
-                        indexes[j] = temp;
-                    }
+        }
+        return sum;
+    }
+
+    /**
+     * Position of the card from the strongest one, jokers are the weakest.
+     */
+    private static int strength(Card card, boolean treatJackAsJoker) {
+        if (!treatJackAsJoker || card.ordinal() < Card.JACK.ordinal()) {
+            return card.ordinal();
+        }
+        return card == Card.JACK ? CARDS.length - 1 : card.ordinal() - 1;
+    }
+
+    private static byte[] handTypeTable(boolean treatJackAsJoker) {
+        return treatJackAsJoker ? JOKER_HAND_TYPE_TABLE : HAND_TYPE_TABLE;
+    }
+
+    /**
+     * Classifies every possible hand once, reusing the same frequency counts for all of them.
+     */
+    private static byte[] buildHandTypeTable(boolean treatJackAsJoker) {
+        byte[] table = new byte[HAND_KEYS];
+        int[] frequencies = new int[CARDS.length];
+        for (int key = 0; key < HAND_KEYS; key++) {
+            Arrays.fill(frequencies, 0);
+            int jokers = 0;
+            for (int i = 0, rest = key; i < HAND_SIZE; i++, rest /= CARDS.length) {
+                int card = rest % CARDS.length;
+                if (treatJackAsJoker && card == CARDS.length - 1) {
+                    jokers++;
+                } else {
+                    frequencies[card]++;
                 }
-                ch[i] = (char) (frequencies[indexes[i]] + '0');
             }
-            lastIndex = Math.max(0, lastIndex - 1);
-            ch[lastIndex] = (char) (frequencies[indexes[lastIndex]] + '0');
-            ch[0] += (char) jokers;
-
-            return Optional.ofNullable(HandType.fromFrequencies(new String(ch)))
-                .orElseThrow(RuntimeException::new);
+            table[key] = (byte) handType(frequencies, jokers).ordinal();
         }
+        return table;
     }
 
-    @Getter
-    @RequiredArgsConstructor
-    private enum HandType {
+    private static HandType handType(int[] frequencies, int jokers) {
+        int max = 0;
+        int distinct = 0;
+        for (int frequency : frequencies) {
+            max = Math.max(max, frequency);
+            distinct += frequency > 0 ? 1 : 0;
+        }
+        switch (max + jokers) {
+            case 5:
+                return HandType.FIVE_OF_A_KIND;
+            case 4:
+                return HandType.FOUR_OF_A_KIND;
+            case 3:
+                return distinct == 2 ? HandType.FULL_HOUSE : HandType.THREE_OF_A_KIND;
+            case 2:
+                return distinct == 3 ? HandType.TWO_PAIR : HandType.ONE_PAIR;
+            default:
+                return HandType.HIGH_CARD;
+        }
+    }
 
-        FIVE_OF_A_KIND("5"),
-        FOUR_OF_A_KIND("41"),
-        FULL_HOUSE("32"),
-        THREE_OF_A_KIND("311"),
-        TWO_PAIR("221"),
-        ONE_PAIR("2111"),
-        HIGH_CARD("11111");
+    /**
+     * Hands by columns, the cards of a hand are the base 13 digits of its number, the first card is the highest digit.
+     */
+    static final class Hands {
 
-        private final String frequencies;
+        private final int size;
+        private final int[] cards;
+        private final int[] bids;
 
-        private static final Map<String, HandType> REVERSE_LOOKUP_MAP = EnumUtils.toReverseLookupMap(HandType.class, HandType::getFrequencies);
+        Hands(int size, int[] cards, int[] bids) {
+            this.size = size;
+            this.cards = cards;
+            this.bids = bids;
+        }
 
-        public static HandType fromFrequencies(String frequencies) {
-            return REVERSE_LOOKUP_MAP.get(frequencies);
+        public int size() {
+            return size;
         }
     }
 
+    private enum HandType {
+
+        FIVE_OF_A_KIND,
+        FOUR_OF_A_KIND,
+        FULL_HOUSE,
+        THREE_OF_A_KIND,
+        TWO_PAIR,
+        ONE_PAIR,
+        HIGH_CARD
+    }
+
     @Getter
     @RequiredArgsConstructor
     private enum Card implements Comparable<Card> {
@@ -168,24 +321,46 @@ public class Day07 implements Runnable {
         }
     }
 
-    @SneakyThrows
-    private List<Hand> parseInput() {
-        File file = ResourceUtils.getResourceFile("day07.txt");
-        try (
-            FileReader fileReader = new FileReader(file);
-            Scanner scanner = new Scanner(fileReader)
-        ) {
-            List<Hand> hands = new ArrayList<>();
-            while (scanner.hasNextLine()) {
-                var line = scanner.nextLine().split("\\s+");
-                var cards = line[0].chars()
-                    .mapToObj(x -> (char) x)
-                    .map(Card::fromLabel)
-                    .toArray(Card[]::new);
-                var bid = Integer.parseInt(line[1]);
-                hands.add(Hand.of(cards, bid));
+    @Override
+    public Hands parseInput(MappedInput input) {
+        int size = 0;
+        int[] cards = new int[128];
+        int[] bids = new int[cards.length];
+        while (input.hasNextLine()) {
+            Line line = input.nextLine();
+            if (size == cards.length) {
+                cards = Arrays.copyOf(cards, size * 2);
+                bids = Arrays.copyOf(bids, size * 2);
             }
-            return hands;
+            cards[size] = parseCards(line);
+            bids[size++] = parseBid(line);
+        }
+        return new Hands(size, cards, bids);
+    }
+
+    /**
+     * Cards of the hand as a base 13 number of the card ordinals, the first card is the highest digit.
+     */
+    static int parseCards(Line line) {
+        if (line.indexOf(' ') != HAND_SIZE) {
+            throw new RuntimeException("Expected a hand of " + HAND_SIZE + " cards, found " + line);
+        }
+        int hand = 0;
+        for (int i = 0; i < HAND_SIZE; i++) {
+            Card card = Card.fromLabel(line.charAt(i));
+            if (card == null) {
+                throw new RuntimeException("Unknown card " + line.charAt(i) + " in " + line);
+            }
+            hand = hand * CARDS.length + card.ordinal();
+        }
+        return hand;
+    }
+
+    static int parseBid(Line line) {
+        int bid = line.parseInt(HAND_SIZE + 1, line.length());
+        if (bid < 0) {
+            throw new RuntimeException("Negative bid in " + line);
         }
+        return bid;
     }
 }
@@ -0,0 +1,26 @@
+package com.github.zoltanmeze.aoc.day07;
+
+import com.github.zoltanmeze.aoc.InputGenerator;
+
+import java.io.PrintWriter;
+import java.util.SplittableRandom;
+
+/**
+ * Hands of five random cards with bids between 1 and 1000.
+ */
+public class Day07Generator implements InputGenerator {
+
+    private static final String CARDS = "AKQJT98765432";
+
+    @Override
+    public void generate(SplittableRandom random, int scale, PrintWriter out) {
+        char[] hand = new char[5];
+        for (int i = 0, hands = 1000 * scale; i < hands; i++) {
+            for (int j = 0; j < hand.length; j++) {
+                hand[j] = CARDS.charAt(random.nextInt(CARDS.length()));
+            }
+            out.write(hand);
+            out.append(' ').append(String.valueOf(random.nextInt(1, 1001))).append('\n');
+        }
+    }
+}
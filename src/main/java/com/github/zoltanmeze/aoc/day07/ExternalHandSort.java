@@ -0,0 +1,299 @@
+package com.github.zoltanmeze.aoc.day07;
+
+import com.github.zoltanmeze.aoc.utilities.LineReader;
+import com.github.zoltanmeze.aoc.utilities.MappedInput.Line;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+import static java.nio.file.StandardOpenOption.DELETE_ON_CLOSE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Ranks more hands than fit into memory. Hands are packed into sort keys in runs of a fixed number of hands,
+ * each run is sorted in memory and spilled to a temporary file, then the runs are merged back from the strongest
+ * to the weakest hand while the winnings are summed up.
+ * <p>
+ * Memory is bounded by the size of a run, whatever the size of the input: the read buffers of the merge share the
+ * same budget, with a minimum size for each buffer. That limits how many runs are merged at once, if there are more
+ * runs, groups of them are merged into longer runs of another temporary file first, as many passes as needed.
+ * Every run but the last one has the same length, so the runs are located by their index and nothing is kept per run.
+ * <p>
+ * Equal hands are taken from the earlier run first, so they are ranked in input order like the in-memory sort does.
+ */
+@Slf4j
+public final class ExternalHandSort {
+
+    private static final int DEFAULT_RUN_SIZE = 1 << 22;
+    private static final int INITIAL_RUN_CAPACITY = 1 << 10;
+    private static final int MAX_BUFFER_SIZE = 1 << 16;
+    private static final int MIN_BUFFER_SIZE = 1 << 12;
+
+    private final Path directory;
+    private final int runSize;
+
+    private ExternalHandSort(Path directory, int runSize) {
+        this.directory = directory;
+        this.runSize = runSize;
+    }
+
+    public static ExternalHandSort ofTemporaryDirectory() {
+        return of(Path.of(System.getProperty("java.io.tmpdir")), DEFAULT_RUN_SIZE);
+    }
+
+    public static ExternalHandSort of(Path directory, int runSize) {
+        if (runSize < 1) {
+            throw new IllegalArgumentException("Run size has to be positive, got " + runSize);
+        }
+        return new ExternalHandSort(directory, runSize);
+    }
+
+    /**
+     * Total winnings of the hands, each line is a hand and its bid.
+     */
+    @SneakyThrows
+    public long totalWinnings(LineReader lines, boolean treatJackAsJoker) {
+        // Grown as hands arrive, so small inputs don't pay for a full run
+        long[] run = new long[Math.min(runSize, INITIAL_RUN_CAPACITY)];
+        int size = 0;
+        long total = 0;
+        try (FileChannel channel = open(); FileChannel other = open()) {
+            RunWriter writer = new RunWriter(channel);
+            long runs = 0;
+            while (lines.hasNextLine()) {
+                Line line = lines.nextLine();
+                if (size == run.length) {
+                    run = Arrays.copyOf(run, (int) Math.min(runSize, 2L * run.length));
+                }
+                run[size++] = Day07.sortKey(Day07.parseCards(line), Day07.parseBid(line), treatJackAsJoker);
+                total++;
+                if (size == runSize || !lines.hasNextLine() && runs > 0) {
+                    Day07.radixSort(run, size);
+                    for (int i = 0; i < size; i++) {
+                        writer.accept(run[i]);
+                    }
+                    writer.flush();
+                    runs++;
+                    size = 0;
+                }
+            }
+            if (runs == 0) {
+                // Every hand fit into a single run, no need to read it back from the disk
+                Day07.radixSort(run, size);
+                Winnings winnings = new Winnings(size);
+                for (int i = 0; i < size; i++) {
+                    winnings.accept(run[i]);
+                }
+                return winnings.sum;
+            }
+            return merge(channel, other, runs, total);
+        }
+    }
+
+    @SneakyThrows
+    private FileChannel open() {
+        return FileChannel.open(Files.createTempFile(directory, "day07-", ".runs"), READ, WRITE, DELETE_ON_CLOSE);
+    }
+
+    /**
+     * Merges the runs in passes between the two files, until few enough of them are left to be merged at once
+     * into the winnings.
+     */
+    @SneakyThrows
+    private long merge(FileChannel channel, FileChannel other, long runs, long total) {
+        long budget = Math.max((long) runSize * Long.BYTES, 2L * MIN_BUFFER_SIZE);
+        int fanIn = (int) Math.min(budget / MIN_BUFFER_SIZE, Integer.MAX_VALUE);
+        int bufferSize = (int) Math.min(MAX_BUFFER_SIZE, budget / Math.min(runs, fanIn)) / Long.BYTES * Long.BYTES;
+        RunReader[] readers = new RunReader[(int) Math.min(runs, fanIn)];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new RunReader(bufferSize);
+        }
+
+        long runLength = runSize;
+        FileChannel input = channel;
+        FileChannel output = other;
+        while (runs > fanIn) {
+            log.debug("Merging {} runs of {} hands into runs of {} hands", runs, runLength, runLength * fanIn);
+            output.truncate(0L);
+            output.position(0L);
+            RunWriter writer = new RunWriter(output);
+            for (long first = 0; first < runs; first += fanIn) {
+                merge(input, runLength, total, first, Math.min(runs, first + fanIn), readers, writer);
+                writer.flush();
+            }
+            runs = (runs + fanIn - 1) / fanIn;
+            runLength = Math.multiplyExact(runLength, fanIn);
+            FileChannel swap = input;
+            input = output;
+            output = swap;
+        }
+        log.debug("Merging {} runs of {} hands", runs, total);
+        Winnings winnings = new Winnings(total);
+        merge(input, runLength, total, 0, runs, readers, winnings);
+        return winnings.sum;
+    }
+
+    /**
+     * K-way merge of the runs from the first (inclusive) to the last (exclusive) with a binary heap of the runs by
+     * their next key, ties broken by the order of the runs.
+     */
+    private static void merge(FileChannel channel, long runLength, long total, long first, long last,
+                              RunReader[] readers, LongConsumer output) {
+        int count = (int) (last - first);
+        int[] heap = new int[count];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            long start = (first + i) * runLength;
+            readers[i].reset(channel, start * Long.BYTES, Math.min(total, start + runLength) * Long.BYTES);
+            if (readers[i].advance()) {
+                heap[size] = i;
+                siftUp(heap, size++, readers);
+            }
+        }
+        while (size > 0) {
+            RunReader reader = readers[heap[0]];
+            output.accept(reader.key);
+            if (!reader.advance()) {
+                heap[0] = heap[--size];
+            }
+            siftDown(heap, size, readers);
+        }
+    }
+
+    private static void siftUp(int[] heap, int index, RunReader[] readers) {
+        int run = heap[index];
+        while (index > 0 && before(run, heap[(index - 1) / 2], readers)) {
+            heap[index] = heap[(index - 1) / 2];
+            index = (index - 1) / 2;
+        }
+        heap[index] = run;
+    }
+
+    private static void siftDown(int[] heap, int size, RunReader[] readers) {
+        if (size == 0) {
+            return;
+        }
+        int run = heap[0];
+        int index = 0;
+        while (2 * index + 1 < size) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && before(heap[child + 1], heap[child], readers)) {
+                child++;
+            }
+            if (!before(heap[child], run, readers)) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = run;
+    }
+
+    private static boolean before(int run, int other, RunReader[] readers) {
+        long hand = Day07.handOf(readers[run].key);
+        long otherHand = Day07.handOf(readers[other].key);
+        return hand < otherHand || hand == otherHand && run < other;
+    }
+
+    /**
+     * Sums the winnings of the keys, given from the strongest to the weakest hand.
+     */
+    private static final class Winnings implements LongConsumer {
+
+        private long rank;
+        private long sum;
+
+        Winnings(long total) {
+            this.rank = total;
+        }
+
+        @Override
+        public void accept(long key) {
+            sum += rank-- * Day07.bidOf(key);
+        }
+    }
+
+    /**
+     * Appends keys to the end of the file through a buffer.
+     */
+    private static final class RunWriter implements LongConsumer {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(MAX_BUFFER_SIZE);
+
+        RunWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void accept(long key) {
+            if (buffer.remaining() < Long.BYTES) {
+                flush();
+            }
+            buffer.putLong(key);
+        }
+
+        @SneakyThrows
+        void flush() {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Reads the keys of a run through a buffer of its own, with positional reads so runs don't move each other.
+     */
+    private static final class RunReader {
+
+        private final ByteBuffer buffer;
+        private FileChannel channel;
+        private long position;
+        private long end;
+        private long key;
+
+        RunReader(int bufferSize) {
+            this.buffer = ByteBuffer.allocate(bufferSize);
+        }
+
+        void reset(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+            buffer.limit(0);
+        }
+
+        /**
+         * Moves to the next key of the run, returns false at the end of the run.
+         */
+        @SneakyThrows
+        boolean advance() {
+            if (!buffer.hasRemaining()) {
+                if (position == end) {
+                    return false;
+                }
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), end - position));
+                while (buffer.hasRemaining()) {
+                    int read = channel.read(buffer, position);
+                    if (read < 0) {
+                        throw new RuntimeException("Run ends at " + position + " instead of " + end);
+                    }
+                    position += read;
+                }
+                buffer.flip();
+            }
+            key = buffer.getLong();
+            return true;
+        }
+    }
+}
@@ -1,21 +1,21 @@
 package com.github.zoltanmeze.aoc.day08;
 
-import com.github.zoltanmeze.aoc.utilities.ResourceUtils;
+import com.github.zoltanmeze.aoc.Puzzle;
+import com.github.zoltanmeze.aoc.utilities.ByteTokenizer;
+import com.github.zoltanmeze.aoc.utilities.MappedInput;
 import lombok.Data;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.File;
-import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
-import java.util.function.Predicate;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.function.IntPredicate;
 
 @Slf4j
-public class Day08 implements Runnable {
+public class Day08 implements Puzzle<Network> {
 
     public static void main(String[] args) {
         new Day08().run();
@@ -27,32 +27,26 @@ public class Day08 implements Runnable {
         log.info("Part two: {}", partTwo());
     }
 
-    public Object partOne() {
-        Input input = parseInput();
-
-        String current = "AAA";
-        String target = "ZZZ";
+    @Override
+    public Object partOne(Network input) {
+        int current = input.id("AAA");
+        int target = input.id("ZZZ");
+        if (current == -1 || target == -1) {
+            throw new RuntimeException("Missing AAA or ZZZ node");
+        }
 
-        return findClosestNode(current, 0, input, l -> l.equals(target)).steps;
+        return findClosestNode(current, 0, input, node -> node == target).steps;
     }
 
-    public Object partTwo() {
-        Input input = parseInput();
-
-        var endsWithZ = new Predicate<String>() {
-            @Override
-            public boolean test(String label) {
-                return label.endsWith("Z");
-            }
-        };
-
+    @Override
+    public Object partTwo(Network input) {
         long results = 1;
-        for (String label : input.nodes.keySet()) {
-            if (!endsWithZ.test(label)) {
+        for (int node = 0; node < input.size(); node++) {
+            if (!input.isTerminal(node)) {
                 continue;
             }
-            var closestNodeFromA = findClosestNode(label, 0, input, endsWithZ);
-            var closestNodeFromZ = findClosestNode(closestNodeFromA.label, (int) (closestNodeFromA.steps % input.instructions.length), input, endsWithZ);
+            var closestNodeFromA = findClosestNode(node, 0, input, input::isTerminal);
+            var closestNodeFromZ = findClosestNode(closestNodeFromA.node, (int) (closestNodeFromA.steps % input.instructions()), input, input::isTerminal);
 
             if (!closestNodeFromA.equals(closestNodeFromZ)) {
                 // Nodes from Z always loops around with same number of steps
@@ -64,18 +58,19 @@ public class Day08 implements Runnable {
         return results;
     }
 
-    private ClosestNode findClosestNode(String fromLabel, int fromIndex, Input input, Predicate<String> predicate) {
-        String label = fromLabel;
+    private ClosestNode findClosestNode(int fromNode, int fromIndex, Network input, IntPredicate predicate) {
+        int node = fromNode;
         int index = fromIndex;
 
         long steps = 0;
         do {
-            Node instruction = input.nodes.get(label);
-            label = input.instructions[index] == 'L' ? instruction.left : instruction.right;
-            index = (index + 1) % input.instructions.length;
+            node = input.next(node, index);
+            if (++index == input.instructions()) {
+                index = 0;
+            }
             steps++;
-        } while (!predicate.test(label));
-        return ClosestNode.of(steps, label);
+        } while (!predicate.test(node));
+        return ClosestNode.of(steps, node);
     }
 
     private long lcm(long a, long b) {
@@ -97,45 +92,66 @@ public class Day08 implements Runnable {
     @Data(staticConstructor = "of")
     private static class ClosestNode {
         private final long steps;
-        private final String label;
-    }
-
-    @Data(staticConstructor = "of")
-    private static class Input {
-        private final char[] instructions;
-        private final Map<String, Node> nodes;
+        private final int node;
     }
 
-    @Data(staticConstructor = "of")
-    private static class Node {
-        private final String left;
-        private final String right;
-    }
-
-    @SneakyThrows
-    private Input parseInput() {
-        File file = ResourceUtils.getResourceFile("day08.txt");
-        try (
-            FileReader fileReader = new FileReader(file);
-            Scanner scanner = new Scanner(fileReader)
-        ) {
-            Pattern pattern = Pattern.compile("^(?<LABEL>\\w++)\\s+=\\s+\\((?<LEFT>\\w+),\\s+(?<RIGHT>\\w+)\\)$");
-            if (!scanner.hasNextLine()) {
-                throw new RuntimeException();
+    @Override
+    public Network parseInput(MappedInput input) {
+        ByteTokenizer tokenizer = ByteTokenizer.of(input);
+
+        String word = tokenizer.nextWord();
+        boolean[] instructions = new boolean[word.length()];
+        for (int i = 0; i < instructions.length; i++) {
+            if (word.charAt(i) != 'L' && word.charAt(i) != 'R') {
+                throw new RuntimeException("Unknown instruction " + word.charAt(i));
+            }
+            instructions[i] = word.charAt(i) == 'L';
+        }
+        tokenizer.expectEndOfLine();
+
+        // Labels are interned in the order they are first seen, neighbours may come before their own node
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> labels = new ArrayList<>();
+        int[] left = new int[1024];
+        int[] right = new int[left.length];
+        BitSet defined = new BitSet();
+        while (tokenizer.hasNext()) {
+            if (tokenizer.acceptEndOfLine()) {
+                continue;
             }
-            char[] instructions = scanner.nextLine().toCharArray();
-            Map<String, Node> nodes = new HashMap<>();
-            while (scanner.hasNextLine()) {
-                Matcher matcher = pattern.matcher(scanner.nextLine());
-                if (matcher.find()) {
-                    String label = matcher.group("LABEL");
-                    var node = nodes.put(label, Node.of(matcher.group("LEFT"), matcher.group("RIGHT")));
-                    if (node != null) {
-                        throw new RuntimeException("Node with label " + label + " already exist");
-                    }
-                }
+            String label = tokenizer.nextWord();
+            tokenizer.expect(" = (");
+            int leftNode = intern(tokenizer.nextWord(), ids, labels);
+            tokenizer.expect(", ");
+            int rightNode = intern(tokenizer.nextWord(), ids, labels);
+            tokenizer.expect(')');
+            tokenizer.expectEndOfLine();
+
+            int node = intern(label, ids, labels);
+            if (defined.get(node)) {
+                throw new RuntimeException("Node with label " + label + " already exist");
             }
-            return Input.of(instructions, nodes);
+            defined.set(node);
+            if (labels.size() > left.length) {
+                left = Arrays.copyOf(left, Math.max(left.length * 2, labels.size()));
+                right = Arrays.copyOf(right, left.length);
+            }
+            left[node] = leftNode;
+            right[node] = rightNode;
+        }
+        if (defined.cardinality() != labels.size()) {
+            throw new RuntimeException("Node with label " + labels.get(defined.nextClearBit(0)) + " doesn't exist");
+        }
+        return new Network(instructions, labels.toArray(String[]::new), ids,
+            Arrays.copyOf(left, labels.size()), Arrays.copyOf(right, labels.size()));
+    }
+
+    private static int intern(String label, Map<String, Integer> ids, List<String> labels) {
+        Integer id = ids.putIfAbsent(label, labels.size());
+        if (id == null) {
+            labels.add(label);
+            return labels.size() - 1;
         }
+        return id;
     }
 }
@@ -0,0 +1,91 @@
+package com.github.zoltanmeze.aoc.day08;
+
+import com.github.zoltanmeze.aoc.InputGenerator;
+
+import java.io.PrintWriter;
+import java.util.SplittableRandom;
+
+/**
+ * Network of six loops, one of them from {@code AAA} to {@code ZZZ}, the others from {@code ..A} to {@code ..Z} nodes.
+ * A loop is a ring of two lane wide steps, the instructions only pick the lane, so every loop returns to its
+ * {@code Z} node after the same number of steps from any instruction, which is what part two relies on.
+ * Loop lengths are distinct primes multiplied by the scale, so their least common multiple fits a long.
+ */
+public class Day08Generator implements InputGenerator {
+
+    private static final int[] PRIMES = {43, 47, 53, 59, 61, 67, 71, 73, 79};
+    private static final int LOOPS = 6;
+    private static final String LETTERS = "BCDEFGHIJKLMNOPQRSTUVWXY"; // No A and Z, labels of regular nodes never end with them
+
+    @Override
+    public void generate(SplittableRandom random, int scale, PrintWriter out) {
+        char[] instructions = new char[270 * scale];
+        for (int i = 0; i < instructions.length; i++) {
+            instructions[i] = random.nextBoolean() ? 'L' : 'R';
+        }
+        out.write(instructions);
+        out.append("\n\n");
+
+        int[] primes = PRIMES.clone();
+        for (int i = 0; i < LOOPS; i++) {
+            int j = random.nextInt(i, primes.length);
+            int temp = primes[i];
+            primes[i] = primes[j];
+            primes[j] = temp;
+        }
+
+        // Loop i takes the ids from start[i], the Z node first, then two nodes for every other step and the A node last
+        int[] starts = new int[LOOPS + 1];
+        for (int i = 0; i < LOOPS; i++) {
+            starts[i + 1] = starts[i] + 2 * primes[i] * scale;
+        }
+        int nodes = starts[LOOPS];
+        int width = 3;
+        for (long capacity = (long) LETTERS.length() * LETTERS.length() * LETTERS.length(); capacity < nodes; capacity *= LETTERS.length()) {
+            width++;
+        }
+        String[] labels = new String[nodes];
+        int[] left = new int[nodes];
+        int[] right = new int[nodes];
+        for (int loop = 0; loop < LOOPS; loop++) {
+            int z = starts[loop];
+            int a = starts[loop + 1] - 1;
+            int length = primes[loop] * scale;
+            String prefix = loop == 0 ? null : encode(loop, width - 1);
+            labels[z] = loop == 0 ? "ZZZ" : prefix + "Z";
+            labels[a] = loop == 0 ? "AAA" : prefix + "A";
+            for (int step = 0; step < length; step++) {
+                int next = step + 1 == length ? z : z + 2 * step + 1; // Both lanes of the next step
+                int nextOther = step + 1 == length ? z : next + 1;
+                int[] current = step == 0 ? new int[] {z, a} : new int[] {z + 2 * step - 1, z + 2 * step};
+                for (int node : current) {
+                    boolean swap = random.nextBoolean();
+                    left[node] = swap ? nextOther : next;
+                    right[node] = swap ? next : nextOther;
+                    if (labels[node] == null) {
+                        labels[node] = encode(node, width);
+                    }
+                }
+            }
+        }
+
+        int[] order = new int[nodes];
+        for (int i = 0; i < nodes; i++) {
+            int j = random.nextInt(i + 1);
+            order[i] = order[j];
+            order[j] = i;
+        }
+        for (int node : order) {
+            out.append(labels[node]).append(" = (").append(labels[left[node]]).append(", ").append(labels[right[node]]).append(")\n");
+        }
+    }
+
+    private static String encode(int number, int width) {
+        char[] label = new char[width];
+        for (int i = width - 1; i >= 0; i--) {
+            label[i] = LETTERS.charAt(number % LETTERS.length());
+            number /= LETTERS.length();
+        }
+        return new String(label);
+    }
+}
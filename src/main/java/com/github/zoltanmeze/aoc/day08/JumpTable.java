@@ -0,0 +1,57 @@
+package com.github.zoltanmeze.aoc.day08;
+
+/**
+ * Node reached after any number of steps from the first instruction, in time logarithmic in the number of full passes
+ * over the instructions (binary lifting). Level {@code k} holds the node reached after {@code 2^k} full passes from
+ * every node: level 0 walks a pass once from every node, the others compose the level below with itself.
+ * <p>
+ * Building the table takes {@code nodes * instructions} steps, it pays off for walks far longer than that.
+ */
+public final class JumpTable {
+
+    private final Network network;
+    private final int[][] levels;
+
+    JumpTable(Network network) {
+        this.network = network;
+        long passes = Long.MAX_VALUE / network.instructions();
+        this.levels = new int[Long.SIZE - Long.numberOfLeadingZeros(passes)][];
+
+        int[] pass = new int[network.size()];
+        for (int node = 0; node < pass.length; node++) {
+            pass[node] = walk(node, network.instructions());
+        }
+        levels[0] = pass;
+        for (int level = 1; level < levels.length; level++) {
+            int[] below = levels[level - 1];
+            int[] jumps = new int[below.length];
+            for (int node = 0; node < jumps.length; node++) {
+                jumps[node] = below[below[node]];
+            }
+            levels[level] = jumps;
+        }
+    }
+
+    /**
+     * Node reached after the steps from the node, starting with the first instruction.
+     */
+    public int nodeAfter(int node, long steps) {
+        if (steps < 0) {
+            throw new IllegalArgumentException("Number of steps has to be positive, got " + steps);
+        }
+        long passes = steps / network.instructions();
+        for (int level = 0; passes > 0; level++, passes >>>= 1) {
+            if ((passes & 1) == 1) {
+                node = levels[level][node];
+            }
+        }
+        return walk(node, (int) (steps % network.instructions()));
+    }
+
+    private int walk(int node, int steps) {
+        for (int index = 0; index < steps; index++) {
+            node = network.next(node, index);
+        }
+        return node;
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.zoltanmeze.aoc.day08;
+
+import java.util.Map;
+
+/**
+ * Network of nodes interned to dense ids, the left and right neighbour of a node are looked up by its id, and
+ * nodes with a label ending in {@code Z} are flagged as terminal. Labels are only needed to find the start nodes.
+ * <p>
+ * The network is immutable once parsed, a {@link JumpTable} can be built on top of it for walks of any length.
+ */
+public final class Network {
+
+    private final boolean[] instructions;
+    private final String[] labels;
+    private final Map<String, Integer> ids;
+    private final int[] left;
+    private final int[] right;
+    private final boolean[] terminal;
+
+    Network(boolean[] instructions, String[] labels, Map<String, Integer> ids, int[] left, int[] right) {
+        this.instructions = instructions;
+        this.labels = labels;
+        this.ids = ids;
+        this.left = left;
+        this.right = right;
+        this.terminal = new boolean[labels.length];
+        for (int node = 0; node < labels.length; node++) {
+            terminal[node] = labels[node].endsWith("Z");
+        }
+    }
+
+    /**
+     * Number of instructions in a full pass.
+     */
+    public int instructions() {
+        return instructions.length;
+    }
+
+    public int size() {
+        return labels.length;
+    }
+
+    /**
+     * Id of the node with the label, -1 if there is no such node.
+     */
+    public int id(String label) {
+        return ids.getOrDefault(label, -1);
+    }
+
+    public String label(int node) {
+        return labels[node];
+    }
+
+    public boolean isTerminal(int node) {
+        return terminal[node];
+    }
+
+    /**
+     * Node reached from the node following the instruction at the index.
+     */
+    public int next(int node, int index) {
+        return instructions[index] ? left[node] : right[node];
+    }
+
+    public JumpTable jumpTable() {
+        return new JumpTable(this);
+    }
+}
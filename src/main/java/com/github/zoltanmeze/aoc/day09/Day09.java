@@ -1,19 +1,16 @@
 package com.github.zoltanmeze.aoc.day09;
 
-import com.github.zoltanmeze.aoc.utilities.ResourceUtils;
-import lombok.SneakyThrows;
+import com.github.zoltanmeze.aoc.StreamingPuzzle;
+import com.github.zoltanmeze.aoc.utilities.LineReader;
+import com.github.zoltanmeze.aoc.utilities.MappedInput;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.File;
-import java.io.FileReader;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.Scanner;
 import java.util.Stack;
 
 @Slf4j
-public class Day09 implements Runnable {
+public class Day09 implements StreamingPuzzle<List<int[]>> {
 
     public static void main(String[] args) {
         new Day09().run();
@@ -25,22 +22,38 @@ public class Day09 implements Runnable {
         log.info("Part two: {}", partTwo());
     }
 
-    public Object partOne() {
-        List<int[]> input = parseInput();
-
+    @Override
+    public Object partOne(List<int[]> input) {
         return input.stream()
             .mapToInt(history -> extrapolateNext(history, false))
             .reduce(0, Math::addExact);
     }
 
-    public Object partTwo() {
-        List<int[]> input = parseInput();
-
+    @Override
+    public Object partTwo(List<int[]> input) {
         return input.stream()
             .mapToInt(history -> extrapolateNext(history, true))
             .reduce(0, Math::addExact);
     }
 
+    @Override
+    public Object streamPartOne(LineReader lines) {
+        return streamExtrapolated(lines, false);
+    }
+
+    @Override
+    public Object streamPartTwo(LineReader lines) {
+        return streamExtrapolated(lines, true);
+    }
+
+    private long streamExtrapolated(LineReader lines, boolean backwards) {
+        long sum = 0;
+        while (lines.hasNextLine()) {
+            sum = Math.addExact(sum, extrapolateNext(lines.nextLine().parseInts(' '), backwards));
+        }
+        return sum;
+    }
+
     private int extrapolateNext(int[] history, boolean backwards) {
         Stack<Integer> stack = new Stack<>();
         int[] current = history;
@@ -63,22 +76,12 @@ public class Day09 implements Runnable {
         return next;
     }
 
-    @SneakyThrows
-    private List<int[]> parseInput() {
-        File file = ResourceUtils.getResourceFile("day09.txt");
-        try (
-            FileReader fileReader = new FileReader(file);
-            Scanner scanner = new Scanner(fileReader)
-        ) {
-            List<int[]> histories = new ArrayList<>();
-            while (scanner.hasNextLine()) {
-                int[] history = Arrays.stream(scanner.nextLine().split("\\s+"))
-                    .mapToInt(Integer::parseInt)
-                    .toArray();
-
-                histories.add(history);
-            }
-            return histories;
+    @Override
+    public List<int[]> parseInput(MappedInput input) {
+        List<int[]> histories = new ArrayList<>();
+        while (input.hasNextLine()) {
+            histories.add(input.nextLine().parseInts(' '));
         }
+        return histories;
     }
 }
@@ -0,0 +1,37 @@
+package com.github.zoltanmeze.aoc.day09;
+
+import com.github.zoltanmeze.aoc.InputGenerator;
+
+import java.io.PrintWriter;
+import java.util.SplittableRandom;
+
+/**
+ * Histories of 21 values of integer polynomials up to degree four, built up from their differences.
+ * Coefficients are small and centered around zero, so the sum of the extrapolated values fits an int at any scale.
+ */
+public class Day09Generator implements InputGenerator {
+
+    private static final int VALUES = 21;
+
+    @Override
+    public void generate(SplittableRandom random, int scale, PrintWriter out) {
+        int[] differences = new int[5];
+        for (int i = 0, histories = 200 * scale; i < histories; i++) {
+            int degree = random.nextInt(differences.length);
+            for (int d = 0; d <= degree; d++) {
+                differences[d] = random.nextInt(-10, 11);
+            }
+            for (int v = 0; v < VALUES; v++) {
+                if (v > 0) {
+                    out.append(' ');
+                }
+                out.append(String.valueOf(differences[0]));
+                // Next value of every difference level, the highest level stays constant
+                for (int d = 0; d < degree; d++) {
+                    differences[d] += differences[d + 1];
+                }
+            }
+            out.append('\n');
+        }
+    }
+}
@@ -1,28 +1,27 @@
 package com.github.zoltanmeze.aoc.day10;
 
+import com.github.zoltanmeze.aoc.Puzzle;
 import com.github.zoltanmeze.aoc.utilities.EnumUtils;
-import com.github.zoltanmeze.aoc.utilities.ResourceUtils;
+import com.github.zoltanmeze.aoc.utilities.Grid;
+import com.github.zoltanmeze.aoc.utilities.MappedInput;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.File;
-import java.io.FileReader;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashSet;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
 import java.util.Set;
-import java.util.Stack;
 
 @Slf4j
-public class Day10 implements Runnable {
+public class Day10 implements Puzzle<Day10.Maze> {
+
+    private static final byte OUTSIDE = ' ';
 
     public static void main(String[] args) {
         new Day10().run();
@@ -34,115 +33,97 @@ public class Day10 implements Runnable {
         log.info("Part two: {}", partTwo());
     }
 
-    private Object partOne() {
-        Maze input = parseInput();
-
-        Pipe startingPipe = resolveStartingPipe(input);
+    @Override
+    public Object partOne(Maze parsedMaze) {
+        Pipe startingPipe = resolveStartingPipe(parsedMaze);
+        Maze input = parsedMaze.withTile(parsedMaze.start, startingPipe); // Parsed maze is shared, not changed in place
 
-        Coordinate current = input.start;
+        Grid grid = input.grid;
+        int current = input.start;
         Direction direction = startingPipe.nextDirections.get(0);
-        input.set(current, startingPipe);
 
         int steps = 0;
         do {
-            Direction finalDirection = direction;
-            direction = Pipe.fromTile(input.get(current))
-                .getNextDirections()
-                .stream()
-                .filter(nextDirection -> !nextDirection.isOpposite(finalDirection))
-                .findFirst()
-                .orElseThrow();
+            direction = Pipe.fromTile(input.get(current)).nextDirection(direction);
             steps++;
-            current = current.add(direction.getCoordinate());
-        } while (!current.equals(input.start));
+            current += grid.neighbourOffset(direction.ordinal());
+        } while (current != input.start);
 
         return (steps + 1) / 2;
     }
 
-    private Object partTwo() {
-        Maze input = parseInput();
-
-        Pipe startingPipe = resolveStartingPipe(input);
+    @Override
+    public Object partTwo(Maze parsedMaze) {
+        Pipe startingPipe = resolveStartingPipe(parsedMaze);
+        Maze input = parsedMaze.withTile(parsedMaze.start, startingPipe); // Parsed maze is shared, not changed in place
 
-        Maze doubleSizeMaze = input.scaleUp(2);
+        Grid grid = input.grid;
+        Grid doubleSizeGrid = input.scaleUp(2);
 
-        Coordinate current = input.start;
+        int current = input.start;
         Direction direction = startingPipe.nextDirections.get(1);
-        input.set(current, startingPipe);
 
         do {
-            Direction finalDirection = direction;
             Pipe pipe = Pipe.fromTile(input.get(current));
-            Coordinate doubleCoordinate = current.scaleUp(2);
+            int doubleIndex = doubleSizeGrid.index(grid.x(current) * 2, grid.y(current) * 2);
             for (var tile : pipe.getTiles()) {
-                doubleSizeMaze.set(doubleCoordinate.add(tile), tile.getTile());
+                doubleSizeGrid.set(doubleIndex + doubleSizeGrid.offset(tile.getX(), tile.getY()), (byte) tile.getTile());
             }
-            direction = pipe.getNextDirections()
-                .stream()
-                .filter(direction1 -> !direction1.isOpposite(finalDirection))
-                .findFirst()
-                .orElseThrow();
-            current = current.add(direction.getCoordinate());
-        } while (!current.equals(input.start));
+            direction = pipe.nextDirection(direction);
+            current += grid.neighbourOffset(direction.ordinal());
+        } while (current != input.start);
 
         int sum = 0;
-        boolean[][] visited = new boolean[doubleSizeMaze.map.length][doubleSizeMaze.map[0].length];
-        for (int y = 0; y < input.map.length - 1; y++) {
-            for (int x = 0; x < input.map[y].length; x++) {
-                if (input.get(x, y) != '.' || visited[y * 2][x * 2]) {
+        boolean[] visited = new boolean[doubleSizeGrid.size()];
+        int[] stack = new int[doubleSizeGrid.getWidth() * doubleSizeGrid.getHeight()];
+        for (int y = 0; y < grid.getHeight() - 1; y++) {
+            for (int x = 0; x < grid.getWidth(); x++) {
+                int doubleIndex = doubleSizeGrid.index(x * 2, y * 2);
+                if (grid.get(x, y) != '.' || visited[doubleIndex]) {
                     continue;
                 }
-                for (var space : findSpacesEnclosedByLoop(Coordinate.of(x * 2, y * 2), doubleSizeMaze, visited)) {
-                    if (space.x % 2 != 0 || space.y % 2 != 0) {
-                        continue;
-                    }
-                    sum++;
-                }
+                sum += countSpacesEnclosedByLoop(doubleIndex, doubleSizeGrid, visited, stack);
             }
         }
-        // doubleSizeMaze.print();
         return sum;
     }
 
-    private Set<Coordinate> findSpacesEnclosedByLoop(Coordinate starting, Maze maze, boolean[][] visited) {
-        Set<Coordinate> emptySpaces = new HashSet<>();
-
-        Stack<Coordinate> stack = new Stack<>();
-        stack.add(starting);
-
-        visited[starting.y][starting.x] = true;
+    /**
+     * Flood fills the empty spaces reachable from the starting index and counts the ones which are on even coordinates
+     * (tiles of the original maze), or returns zero if the area reaches the border of the maze.
+     */
+    private int countSpacesEnclosedByLoop(int starting, Grid grid, boolean[] visited, int[] stack) {
+        int size = 0;
+        stack[size++] = starting;
+        visited[starting] = true;
 
+        int count = 0;
         boolean allInMaze = true;
-        while (!stack.isEmpty()) {
-            Coordinate current = stack.pop();
-            emptySpaces.add(current);
-            for (Direction direction : Direction.values()) {
-                Coordinate next = current.add(direction.getCoordinate());
-                if (maze.notInRange(next)) {
+        while (size > 0) {
+            int current = stack[--size];
+            if (grid.x(current) % 2 == 0 && grid.y(current) % 2 == 0) {
+                count++;
+            }
+            for (int direction = 0; direction < 4; direction++) {
+                int next = current + grid.neighbourOffset(direction);
+                byte cell = grid.get(next);
+                if (cell == OUTSIDE) {
                     allInMaze = false;
                     continue;
-                } else if (maze.get(next) != '.' || visited[next.y][next.x]) {
+                } else if (cell != '.' || visited[next]) {
                     continue;
                 }
-                visited[next.y][next.x] = true;
-                stack.add(next);
+                visited[next] = true;
+                stack[size++] = next;
             }
         }
-        if (!allInMaze) {
-            return Collections.emptySet();
-        }
-        return emptySpaces;
+        return allInMaze ? count : 0;
     }
 
     private Pipe resolveStartingPipe(Maze maze) {
-        Coordinate start = maze.getStart();
-        Set<Direction> directions = new HashSet<>(2);
+        Set<Direction> directions = EnumSet.noneOf(Direction.class);
         for (Direction direction : Direction.values()) {
-            Coordinate coordinate = start.add(direction.getCoordinate());
-            if (maze.notInRange(coordinate)) {
-                continue;
-            }
-            Pipe pipe = Pipe.fromTile(maze.get(coordinate));
+            Pipe pipe = Pipe.fromTile(maze.grid.get(maze.start + maze.grid.neighbourOffset(direction.ordinal())));
             if (pipe == null) {
                 continue;
             }
@@ -165,54 +146,43 @@ public class Day10 implements Runnable {
         private final int x;
         private final int y;
 
-        public Coordinate add(Coordinate other) {
-            return Coordinate.of(x + other.x, y + other.y);
-        }
-
-        public Coordinate scaleUp(int factor) {
-            return Coordinate.of(x * factor, y * factor);
-        }
     }
 
-    @Data(staticConstructor = "of")
-    private static class Maze {
-        private final Coordinate start;
-        private final char[][] map;
-
-        public char get(int x, int y) {
-            return map[y][x];
-        }
-
-        public char get(Coordinate coordinate) {
-            return map[coordinate.y][coordinate.x];
-        }
-
-        public void set(Coordinate coordinate, char ch) {
-            map[coordinate.y][coordinate.x] = ch;
+    /**
+     * Maze surrounded by a border of {@link #OUTSIDE} tiles, the start is the index of the starting tile in the grid.
+     * At most one tile can be overridden, tiles are read through {@link #get} to see it.
+     */
+    @Data
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    static class Maze {
+        private final int start;
+        private final Grid grid;
+        private final int overridden;
+        private final byte tile;
+
+        public static Maze of(int start, Grid grid) {
+            return new Maze(start, grid, -1, (byte) 0);
         }
 
-        public void set(Coordinate coordinate, Pipe pipe) {
-            map[coordinate.y][coordinate.x] = pipe.getTile();
+        /**
+         * View of the maze with one tile replaced, the grid is shared with this maze and is not changed.
+         */
+        public Maze withTile(int index, Pipe pipe) {
+            return new Maze(start, grid, index, (byte) pipe.getTile());
         }
 
-        public boolean notInRange(Coordinate coordinate) {
-            return coordinate.y < 0 || coordinate.y >= map.length
-                || coordinate.x < 0 || coordinate.x >= map[0].length;
+        public byte get(int index) {
+            return index == overridden ? tile : grid.get(index);
         }
 
-        public Maze scaleUp(int factor) {
-            char[][] scaledMap = new char[map.length * factor][map[0].length * factor];
-            for (char[] row : scaledMap) {
-                Arrays.fill(row, '.');
-            }
-            return Maze.of(start.scaleUp(factor), scaledMap);
+        public Grid scaleUp(int factor) {
+            Grid scaled = new Grid(grid.getWidth() * factor, grid.getHeight() * factor, 1, OUTSIDE);
+            scaled.fill((byte) '.');
+            return scaled;
         }
 
         public void print() {
-            for (char[] row : map) {
-                System.out.println(row);
-            }
-
+            System.out.print(grid);
         }
     }
 
@@ -220,12 +190,12 @@ public class Day10 implements Runnable {
     @RequiredArgsConstructor
     private enum Pipe {
 
-        VERTICAL('|', List.of(Direction.NORTH, Direction.SOUTH), List.of(Tile.of(0, 0, '║'), Tile.of(0, 1, '║'))),
-        HORIZONTAL_PIPE('-', List.of(Direction.EAST, Direction.WEST), List.of(Tile.of(0, 0, '═'), Tile.of(1, 0, '═'))),
-        NINETY_DEGREE_NORTH_EAST('L', List.of(Direction.NORTH, Direction.EAST), List.of(Tile.of(0, -1, '║'), Tile.of(0, 0, '╚'), Tile.of(1, 0, '═'))),
-        NINETY_DEGREE_NORTH_WEST('J', List.of(Direction.NORTH, Direction.WEST), List.of(Tile.of(0, -1, '║'), Tile.of(0, 0, '╝'), Tile.of(-1, 0, '═'))),
-        NINETY_DEGREE_SOUTH_WEST('7', List.of(Direction.SOUTH, Direction.WEST), List.of(Tile.of(-1, 0, '═'), Tile.of(0, 0, '╗'), Tile.of(0, 1, '║'))),
-        NINETY_DEGREE_SOUTH_EAST('F', List.of(Direction.SOUTH, Direction.EAST), List.of(Tile.of(1, 0, '═'), Tile.of(0, 0, '╔'), Tile.of(0, 1, '║')));
+        VERTICAL('|', List.of(Direction.NORTH, Direction.SOUTH), List.of(Tile.of(0, 0, '|'), Tile.of(0, 1, '|'))),
+        HORIZONTAL_PIPE('-', List.of(Direction.EAST, Direction.WEST), List.of(Tile.of(0, 0, '-'), Tile.of(1, 0, '-'))),
+        NINETY_DEGREE_NORTH_EAST('L', List.of(Direction.NORTH, Direction.EAST), List.of(Tile.of(0, -1, '|'), Tile.of(0, 0, 'L'), Tile.of(1, 0, '-'))),
+        NINETY_DEGREE_NORTH_WEST('J', List.of(Direction.NORTH, Direction.WEST), List.of(Tile.of(0, -1, '|'), Tile.of(0, 0, 'J'), Tile.of(-1, 0, '-'))),
+        NINETY_DEGREE_SOUTH_WEST('7', List.of(Direction.SOUTH, Direction.WEST), List.of(Tile.of(-1, 0, '-'), Tile.of(0, 0, '7'), Tile.of(0, 1, '|'))),
+        NINETY_DEGREE_SOUTH_EAST('F', List.of(Direction.SOUTH, Direction.EAST), List.of(Tile.of(1, 0, '-'), Tile.of(0, 0, 'F'), Tile.of(0, 1, '|')));
 
         private final char tile;
         private final List<Direction> nextDirections;
@@ -233,8 +203,16 @@ public class Day10 implements Runnable {
 
         private static final Map<Character, Pipe> REVERSE_LOOKUP_MAP = EnumUtils.toReverseLookupMap(Pipe.class, Pipe::getTile);
 
-        public static Pipe fromTile(char label) {
-            return REVERSE_LOOKUP_MAP.get(label);
+        public static Pipe fromTile(byte label) {
+            return REVERSE_LOOKUP_MAP.get((char) label);
+        }
+
+        /**
+         * Direction to leave the pipe, when it was entered moving in the given direction.
+         */
+        public Direction nextDirection(Direction direction) {
+            Direction next = nextDirections.get(0);
+            return next.isOpposite(direction) ? nextDirections.get(1) : next;
         }
     }
 
@@ -258,6 +236,7 @@ public class Day10 implements Runnable {
     @RequiredArgsConstructor
     private enum Direction {
 
+        // Same order as the neighbour offsets of the grid
         NORTH(Coordinate.of(0, -1)),
         EAST(Coordinate.of(1, 0)),
         SOUTH(Coordinate.of(0, 1)),
@@ -270,30 +249,14 @@ public class Day10 implements Runnable {
         }
     }
 
-    @SneakyThrows
-    private Maze parseInput() {
-        File file = ResourceUtils.getResourceFile("day10.txt");
-        try (
-            FileReader fileReader = new FileReader(file);
-            Scanner scanner = new Scanner(fileReader)
-        ) {
-            int startX = 0;
-            int startY = 0;
-
-            List<char[]> map = new ArrayList<>();
-            int x = -1;
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                if (x == -1) {
-                    if ((x = line.indexOf('S')) != -1) {
-                        startX = x;
-                    } else {
-                        startY++;
-                    }
-                }
-                map.add(line.toCharArray());
+    @Override
+    public Maze parseInput(MappedInput input) {
+        Grid grid = Grid.parse(input, 1, OUTSIDE);
+        for (int i = 0; i < grid.size(); i++) {
+            if (grid.get(i) == 'S') {
+                return Maze.of(i, grid);
             }
-            return Maze.of(Coordinate.of(startX, startY), map.toArray(new char[0][]));
         }
+        throw new RuntimeException("Starting position not found");
     }
 }
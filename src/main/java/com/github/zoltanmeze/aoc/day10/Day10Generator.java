@@ -0,0 +1,199 @@
+package com.github.zoltanmeze.aoc.day10;
+
+import com.github.zoltanmeze.aoc.InputGenerator;
+
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Square maze with a single loop starting at the top left corner, surrounded by random pipes.
+ * <p>
+ * The loop is the outline of a random tree: the maze is split into 3x3 blocks, a tree is grown over part of the
+ * blocks, and the loop walks clockwise around the centers of the blocks and the edges between them.
+ * Centers and edges of the tree end up inside the loop, so part two has enclosed tiles to count.
+ */
+public class Day10Generator implements InputGenerator {
+
+    // Clockwise ring of a block: NW, N, NE, E, SE, S, SW, W, sides are the odd positions
+    private static final int[] RING_X = {0, 1, 2, 2, 2, 1, 0, 0};
+    private static final int[] RING_Y = {0, 0, 0, 1, 2, 2, 2, 1};
+    // Neighbouring block of the sides N, E, S, W
+    private static final int[] SIDE_X = {0, 1, 0, -1};
+    private static final int[] SIDE_Y = {-1, 0, 1, 0};
+    private static final String JUNK = "|-LJ7F.";
+
+    @Override
+    public void generate(SplittableRandom random, int scale, PrintWriter out) {
+        int side = InputGenerator.scaleSide(140, scale);
+        int blocks = side / 3;
+
+        byte[] maze = new byte[side * side];
+        for (int i = 0; i < maze.length; i++) {
+            maze[i] = (byte) JUNK.charAt(random.nextInt(JUNK.length()));
+        }
+
+        int[] parent = growTree(random, blocks, blocks * blocks * 7 / 10);
+        int[] path = walkAroundTree(parent, blocks, side);
+
+        for (int block = 0; block < parent.length; block++) {
+            if (parent[block] == -1) {
+                continue;
+            }
+            // Inside of the loop, mostly empty with some pipes lying around
+            int center = centerOf(block, blocks, side);
+            clear(random, maze, center);
+            if (parent[block] != block) {
+                // Two cells between the centers, the sides of both blocks
+                int distance = centerOf(parent[block], blocks, side) - center;
+                clear(random, maze, center + distance / 3);
+                clear(random, maze, center + 2 * distance / 3);
+            }
+        }
+        for (int i = 0; i < path.length; i++) {
+            int previous = path[(i + path.length - 1) % path.length];
+            int next = path[(i + 1) % path.length];
+            maze[path[i]] = pipe(path[i] - previous, next - path[i], side);
+        }
+        maze[path[0]] = 'S';
+
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                out.write(maze[y * side + x]);
+            }
+            out.write('\n');
+        }
+    }
+
+    /**
+     * Grows a random tree from the top left block, returns the parent of every block, the root is its own parent
+     * and blocks outside of the tree have -1.
+     */
+    private int[] growTree(SplittableRandom random, int blocks, int size) {
+        int[] parent = new int[blocks * blocks];
+        Arrays.fill(parent, -1);
+        parent[0] = 0;
+
+        // Frontier of candidate edges as (block, side) pairs, picked at random
+        int[] frontier = new int[16];
+        int frontierSize = 0;
+        int grown = 1;
+        int current = 0;
+        do {
+            for (int s = 0; s < 4; s++) {
+                if (frontierSize == frontier.length) {
+                    frontier = Arrays.copyOf(frontier, frontierSize * 2);
+                }
+                frontier[frontierSize++] = current << 2 | s;
+            }
+            current = -1;
+            while (current == -1 && frontierSize > 0) {
+                int index = random.nextInt(frontierSize);
+                int edge = frontier[index];
+                frontier[index] = frontier[--frontierSize];
+
+                int block = edge >>> 2;
+                int x = block % blocks + SIDE_X[edge & 3];
+                int y = block / blocks + SIDE_Y[edge & 3];
+                if (x >= 0 && y >= 0 && x < blocks && y < blocks && parent[y * blocks + x] == -1) {
+                    current = y * blocks + x;
+                    parent[current] = block;
+                    grown++;
+                }
+            }
+        } while (current != -1 && grown < size);
+        return parent;
+    }
+
+    /**
+     * Cells of the loop in order, starting with the top left corner of the root block.
+     * Sides of a block leading to a child are replaced by walking around the child, iteratively to keep the
+     * stack small for any size.
+     */
+    private int[] walkAroundTree(int[] parent, int blocks, int side) {
+        // Children of every block by side, found from the parents
+        int[] children = new int[parent.length * 4];
+        Arrays.fill(children, -1);
+        for (int block = 0; block < parent.length; block++) {
+            if (parent[block] == -1 || parent[block] == block) {
+                continue;
+            }
+            int p = parent[block];
+            for (int s = 0; s < 4; s++) {
+                if (p % blocks + SIDE_X[s] == block % blocks && p / blocks + SIDE_Y[s] == block / blocks) {
+                    children[p * 4 + s] = block;
+                }
+            }
+        }
+
+        int[] path = new int[16];
+        int length = 0;
+        // Stack of (block, next ring position, last ring position)
+        int[] stack = new int[48];
+        int size = 0;
+        stack[size++] = 0;
+        stack[size++] = 0;
+        stack[size++] = 7;
+        while (size > 0) {
+            int block = stack[size - 3];
+            int position = stack[size - 2];
+            int last = stack[size - 1];
+            if (position > last) {
+                size -= 3;
+                continue;
+            }
+            stack[size - 2] = position + 1;
+            int ring = position % 8;
+            int child = ring % 2 == 1 ? children[block * 4 + ring / 2] : -1;
+            if (child == -1) {
+                if (length == path.length) {
+                    path = Arrays.copyOf(path, length * 2);
+                }
+                path[length++] = (block / blocks * 3 + RING_Y[ring]) * side + block % blocks * 3 + RING_X[ring];
+            } else {
+                // Child is entered from the opposite side, walk its ring from the corner after that side
+                int entry = (ring + 4) % 8;
+                if (size + 3 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[size++] = child;
+                stack[size++] = entry + 1;
+                stack[size++] = entry + 7;
+            }
+        }
+        return Arrays.copyOf(path, length);
+    }
+
+    private static void clear(SplittableRandom random, byte[] maze, int index) {
+        if (random.nextInt(4) > 0) {
+            maze[index] = '.';
+        }
+    }
+
+    private static int centerOf(int block, int blocks, int side) {
+        return (block / blocks * 3 + 1) * side + block % blocks * 3 + 1;
+    }
+
+    /**
+     * Pipe connecting the cell entered with the first offset and left with the second one.
+     */
+    private static byte pipe(int in, int out, int side) {
+        boolean north = in == side || out == -side;
+        boolean south = in == -side || out == side;
+        boolean east = in == -1 || out == 1;
+        boolean west = in == 1 || out == -1;
+        if (north && south) {
+            return '|';
+        } else if (east && west) {
+            return '-';
+        } else if (north && east) {
+            return 'L';
+        } else if (north) {
+            return 'J';
+        } else if (south && west) {
+            return '7';
+        } else {
+            return 'F';
+        }
+    }
+}
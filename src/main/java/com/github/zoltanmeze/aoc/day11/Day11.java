@@ -1,21 +1,19 @@
 package com.github.zoltanmeze.aoc.day11;
 
-import com.github.zoltanmeze.aoc.utilities.ResourceUtils;
+import com.github.zoltanmeze.aoc.Puzzle;
+import com.github.zoltanmeze.aoc.utilities.MappedInput;
+import com.github.zoltanmeze.aoc.utilities.MappedInput.Line;
 import lombok.Data;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.File;
-import java.io.FileReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Scanner;
 import java.util.TreeMap;
 import java.util.function.BiFunction;
 
 @Slf4j
-public class Day11 implements Runnable {
+public class Day11 implements Puzzle<Day11.Universe> {
 
     public static void main(String[] args) {
         new Day11().run();
@@ -27,9 +25,8 @@ public class Day11 implements Runnable {
         log.info("Part two: {}", partTwo());
     }
 
-    private Object partOne() {
-        Universe input = parseInput();
-
+    @Override
+    public Object partOne(Universe input) {
         var galaxies = expandSpaceBetweenGalaxies(input, 1);
 
         long sum = 0;
@@ -41,9 +38,8 @@ public class Day11 implements Runnable {
         return sum;
     }
 
-    private Object partTwo() {
-        Universe input = parseInput();
-
+    @Override
+    public Object partTwo(Universe input) {
         var galaxies = expandSpaceBetweenGalaxies(input, 1000000 - 1);
 
         long sum = 0;
@@ -107,32 +103,26 @@ public class Day11 implements Runnable {
     }
 
     @Data(staticConstructor = "of")
-    private static class Universe {
+    static class Universe {
         private final int width;
         private final int height;
         private final Galaxy[] galaxies;
     }
 
-    @SneakyThrows
-    private Universe parseInput() {
-        File file = ResourceUtils.getResourceFile("day11.txt");
-        try (
-            FileReader fileReader = new FileReader(file);
-            Scanner scanner = new Scanner(fileReader)
-        ) {
-            List<Galaxy> galaxies = new ArrayList<>();
-            int x = 0;
-            int y;
-            for (y = 0; scanner.hasNextLine(); y++) {
-                char[] row = scanner.nextLine().toCharArray();
-                for (x = 0; x < row.length; x++) {
-                    char ch = row[x];
-                    if (ch == '#') {
-                        galaxies.add(Galaxy.of(x, y));
-                    }
+    @Override
+    public Universe parseInput(MappedInput input) {
+        List<Galaxy> galaxies = new ArrayList<>();
+        int x = 0;
+        int y;
+        for (y = 0; input.hasNextLine(); y++) {
+            Line row = input.nextLine();
+            for (x = 0; x < row.length(); x++) {
+                char ch = row.charAt(x);
+                if (ch == '#') {
+                    galaxies.add(Galaxy.of(x, y));
                 }
             }
-            return Universe.of(x, y, galaxies.toArray(new Galaxy[0]));
         }
+        return Universe.of(x, y, galaxies.toArray(new Galaxy[0]));
     }
 }
@@ -0,0 +1,30 @@
+package com.github.zoltanmeze.aoc.day11;
+
+import com.github.zoltanmeze.aoc.InputGenerator;
+
+import java.io.PrintWriter;
+import java.util.SplittableRandom;
+
+/**
+ * Square image of galaxies spread evenly over it, except for a few rows and columns left empty to be expanded.
+ */
+public class Day11Generator implements InputGenerator {
+
+    @Override
+    public void generate(SplittableRandom random, int scale, PrintWriter out) {
+        int side = InputGenerator.scaleSide(140, scale);
+        boolean[] emptyColumns = new boolean[side];
+        for (int x = 0; x < side; x++) {
+            emptyColumns[x] = random.nextInt(20) == 0;
+        }
+        char[] row = new char[side];
+        for (int y = 0; y < side; y++) {
+            boolean emptyRow = random.nextInt(20) == 0;
+            for (int x = 0; x < side; x++) {
+                row[x] = !emptyRow && !emptyColumns[x] && random.nextInt(45) == 0 ? '#' : '.';
+            }
+            out.write(row);
+            out.append('\n');
+        }
+    }
+}
@@ -1,23 +1,21 @@
 package com.github.zoltanmeze.aoc.day12;
 
+import com.github.zoltanmeze.aoc.StreamingPuzzle;
 import com.github.zoltanmeze.aoc.utilities.EnumUtils;
-import com.github.zoltanmeze.aoc.utilities.ResourceUtils;
+import com.github.zoltanmeze.aoc.utilities.LineReader;
+import com.github.zoltanmeze.aoc.utilities.MappedInput;
+import com.github.zoltanmeze.aoc.utilities.MappedInput.Line;
 import lombok.Data;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.File;
-import java.io.FileReader;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
 
 @Slf4j
-public class Day12 implements Runnable {
+public class Day12 implements StreamingPuzzle<List<Day12.Record>> {
 
     public static void main(String[] args) {
         new Day12().run();
@@ -29,23 +27,39 @@ public class Day12 implements Runnable {
         log.info("Part two: {}", partTwo());
     }
 
-    public Object partOne() {
-        List<Record> input = parseInput();
-
+    @Override
+    public Object partOne(List<Record> input) {
         return input.stream()
             .mapToLong(this::findArrangements)
             .reduce(0L, Long::sum);
     }
 
-    public Object partTwo() {
-        List<Record> input = parseInput();
-
+    @Override
+    public Object partTwo(List<Record> input) {
         return input.stream()
             .map(record -> record.unfold(5))
             .mapToLong(this::findArrangements)
             .reduce(0L, Long::sum);
     }
 
+    @Override
+    public Object streamPartOne(LineReader lines) {
+        long sum = 0L;
+        while (lines.hasNextLine()) {
+            sum += findArrangements(parseRecord(lines.nextLine()));
+        }
+        return sum;
+    }
+
+    @Override
+    public Object streamPartTwo(LineReader lines) {
+        long sum = 0L;
+        while (lines.hasNextLine()) {
+            sum += findArrangements(parseRecord(lines.nextLine()).unfold(5));
+        }
+        return sum;
+    }
+
     private long findArrangements(Record record) {
         Long[][] dp = new Long[record.springs.length][record.groups.length];
         return findArrangements(record.springs, 0, record.groups, 0, dp);
@@ -95,7 +109,7 @@ public class Day12 implements Runnable {
     }
 
     @Data(staticConstructor = "of")
-    private static class Record {
+    static class Record {
 
         private final Spring[] springs;
         private final int[] groups;
@@ -136,28 +150,25 @@ public class Day12 implements Runnable {
         }
     }
 
-    @SneakyThrows
-    private List<Record> parseInput() {
-        File file = ResourceUtils.getResourceFile("day12.txt");
-        try (
-            FileReader fileReader = new FileReader(file);
-            Scanner scanner = new Scanner(fileReader)
-        ) {
-            List<Record> records = new ArrayList<>();
-            while (scanner.hasNextLine()) {
-                String[] record = scanner.nextLine().split("\\s");
-
-                Spring[] springs = record[0].codePoints()
-                    .mapToObj(x -> Spring.fromLabel(Character.toChars(x)[0]))
-                    .toArray(Spring[]::new);
-
-                int[] groups = Arrays.stream(record[1].split(","))
-                    .mapToInt(Integer::parseInt)
-                    .toArray();
-
-                records.add(Record.of(springs, groups));
-            }
-            return records;
+    @Override
+    public List<Record> parseInput(MappedInput input) {
+        List<Record> records = new ArrayList<>();
+        while (input.hasNextLine()) {
+            records.add(parseRecord(input.nextLine()));
         }
+        return records;
+    }
+
+    private Record parseRecord(Line line) {
+        int separator = line.indexOf(' ');
+
+        Spring[] springs = new Spring[separator];
+        for (int i = 0; i < separator; i++) {
+            springs[i] = Spring.fromLabel(line.charAt(i));
+        }
+
+        int[] groups = line.subSequence(separator + 1, line.length()).parseInts(',');
+
+        return Record.of(springs, groups);
     }
 }
@@ -0,0 +1,74 @@
+package com.github.zoltanmeze.aoc.day12;
+
+import com.github.zoltanmeze.aoc.InputGenerator;
+
+import java.io.PrintWriter;
+import java.util.SplittableRandom;
+
+/**
+ * Condition records made from a valid arrangement of the damaged groups by hiding some of the springs, so every record
+ * has at least one arrangement.
+ * <p>
+ * Records grow with the scale like the side of a grid: up to {@code 20 * sqrt(scale)} springs in
+ * {@code 1000 * sqrt(scale)} records, so the input still grows linearly but every record gets longer too.
+ * Longer records get more groups, and only about ten of their springs are hidden (half of them at scale 1),
+ * to keep the number of arrangements of the unfolded records within a long.
+ */
+public class Day12Generator implements InputGenerator {
+
+    private static final int MAX_LENGTH = 20;
+
+    @Override
+    public void generate(SplittableRandom random, int scale, PrintWriter out) {
+        int maxLength = InputGenerator.scaleSide(MAX_LENGTH, scale);
+        int stretch = Math.max(1, maxLength / MAX_LENGTH);
+        char[] springs = new char[maxLength];
+        int[] groups = new int[maxLength / 2];
+        for (int i = 0, records = InputGenerator.scaleSide(1000, scale); i < records; i++) {
+            int length = random.nextInt(5, maxLength + 1);
+            // Groups and the gaps between them have to fit in the record
+            int count = 0;
+            for (int used = 0; count < groups.length; count++) {
+                int group = random.nextInt(1, 7);
+                if (used + group > length || (count > 0 && random.nextInt(4 * stretch) == 0)) {
+                    break;
+                }
+                groups[count] = group;
+                used += group + 1;
+            }
+            if (count == 0) {
+                groups[count++] = 1;
+            }
+            int used = count - 1;
+            for (int g = 0; g < count; g++) {
+                used += groups[g];
+            }
+            // Spread the spare operational springs randomly before, between and after the groups
+            int position = 0;
+            int spare = length - used;
+            for (int g = 0; g < count; g++) {
+                int gap = (g > 0 ? 1 : 0) + (spare > 0 ? random.nextInt(spare + 1) / 2 : 0);
+                spare -= gap - (g > 0 ? 1 : 0);
+                for (int s = 0; s < gap; s++) {
+                    springs[position++] = '.';
+                }
+                for (int s = 0; s < groups[g]; s++) {
+                    springs[position++] = '#';
+                }
+            }
+            while (position < length) {
+                springs[position++] = '.';
+            }
+            for (int s = 0; s < length; s++) {
+                if (random.nextInt(2 * stretch) == 0) {
+                    springs[s] = '?';
+                }
+            }
+            out.write(springs, 0, length);
+            for (int g = 0; g < count; g++) {
+                out.append(g == 0 ? ' ' : ',').append(String.valueOf(groups[g]));
+            }
+            out.append('\n');
+        }
+    }
+}
@@ -1,17 +1,15 @@
 package com.github.zoltanmeze.aoc.day13;
 
-import com.github.zoltanmeze.aoc.utilities.ResourceUtils;
-import lombok.SneakyThrows;
+import com.github.zoltanmeze.aoc.Puzzle;
+import com.github.zoltanmeze.aoc.utilities.Grid;
+import com.github.zoltanmeze.aoc.utilities.MappedInput;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.File;
-import java.io.FileReader;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
 
 @Slf4j
-public class Day13 implements Runnable {
+public class Day13 implements Puzzle<List<Grid>> {
 
     public static void main(String[] args) {
         new Day13().run();
@@ -23,29 +21,28 @@ public class Day13 implements Runnable {
         log.info("Part two: {}", partTwo());
     }
 
-    public Object partOne() {
-        List<char[][]> input = parseInput();
-
+    @Override
+    public Object partOne(List<Grid> input) {
         long result = 0;
         int symbolsToChange = 0;
 
-        for (char[][] terrain : input) {
+        for (Grid terrain : input) {
             int columnsLeft = calculate(terrain, symbolsToChange);
             if (columnsLeft == 0) {
-                char[][] flippedTerrain = reverse(terrain);
+                Grid flippedTerrain = terrain.flipVertically();
                 var columnsRight = calculate(flippedTerrain, symbolsToChange);
                 if (columnsRight > 0) {
-                    columnsLeft = flippedTerrain.length - columnsRight;
+                    columnsLeft = flippedTerrain.getHeight() - columnsRight;
                 }
             }
 
-            char[][] rotatedTerrain = transpose(terrain);
+            Grid rotatedTerrain = terrain.transpose();
             int rowsAbove = calculate(rotatedTerrain, symbolsToChange);
             if (rowsAbove == 0) {
-                char[][] flippedRotatedTerrain = reverse(rotatedTerrain);
+                Grid flippedRotatedTerrain = rotatedTerrain.flipVertically();
                 var rowsBelow = calculate(flippedRotatedTerrain, symbolsToChange);
                 if (rowsBelow > 0) {
-                    rowsAbove = flippedRotatedTerrain.length - rowsBelow;
+                    rowsAbove = flippedRotatedTerrain.getHeight() - rowsBelow;
                 }
             }
             result += rowsAbove + 100L * columnsLeft;
@@ -53,29 +50,28 @@ public class Day13 implements Runnable {
         return result;
     }
 
-    public Object partTwo() {
-        List<char[][]> input = parseInput();
-
+    @Override
+    public Object partTwo(List<Grid> input) {
         long result = 0;
         int symbolsToChange = 1;
 
-        for (char[][] terrain : input) {
+        for (Grid terrain : input) {
             int columnsLeft = calculate(terrain, symbolsToChange);
             if (columnsLeft == 0) {
-                char[][] flippedTerrain = reverse(terrain);
+                Grid flippedTerrain = terrain.flipVertically();
                 var columnsRight = calculate(flippedTerrain, symbolsToChange);
                 if (columnsRight > 0) {
-                    columnsLeft = flippedTerrain.length - columnsRight;
+                    columnsLeft = flippedTerrain.getHeight() - columnsRight;
                 }
             }
 
-            char[][] rotatedTerrain = transpose(terrain);
+            Grid rotatedTerrain = terrain.transpose();
             int rowsAbove = calculate(rotatedTerrain, symbolsToChange);
             if (rowsAbove == 0) {
-                char[][] flippedRotatedTerrain = reverse(rotatedTerrain);
+                Grid flippedRotatedTerrain = rotatedTerrain.flipVertically();
                 var rowsBelow = calculate(flippedRotatedTerrain, symbolsToChange);
                 if (rowsBelow > 0) {
-                    rowsAbove = flippedRotatedTerrain.length - rowsBelow;
+                    rowsAbove = flippedRotatedTerrain.getHeight() - rowsBelow;
                 }
             }
             result += rowsAbove + 100L * columnsLeft;
@@ -87,71 +83,41 @@ public class Day13 implements Runnable {
      * Finds number of rows above vertically mirrored terrain.
      * Reflection needs to include last row.
      */
-    private int calculate(char[][] terrain, int toChange) {
-        for (int i = 0; i < terrain.length - 1; i++) {
-            int k = (terrain.length - i - 1) / 2;
+    private int calculate(Grid terrain, int toChange) {
+        int height = terrain.getHeight();
+        for (int i = 0; i < height - 1; i++) {
+            int k = (height - i - 1) / 2;
             int changed = 0;
             boolean found = true;
-            for (int j = terrain.length - 1; k >= 0; k--) {
-                if (i + k == j - k || (changed += lazyHammingDistance(terrain[i + k], terrain[j - k], toChange - changed)) > toChange) {
+            for (int j = height - 1; k >= 0; k--) {
+                if (i + k == j - k || (changed += lazyHammingDistance(terrain, i + k, j - k, toChange - changed)) > toChange) {
                     found = false;
                     break;
                 }
             }
             if (found && changed == toChange) {
-                return i + ((terrain.length - i) / 2);
+                return i + ((height - i) / 2);
             }
         }
         return 0;
     }
 
-    private char[][] reverse(char[][] chs) {
-        char[][] copy = new char[chs.length][chs[0].length];
-        for (int i = 0; i < chs.length; i++) {
-            System.arraycopy(chs[i], 0, copy[chs.length - 1 - i], 0, chs[0].length);
-        }
-        return copy;
-    }
-
-    private char[][] transpose(char[][] chs) {
-        char[][] copy = new char[chs[0].length][chs.length];
-        for (int i = 0; i < chs.length; i++) {
-            for (int j = 0; j < chs[0].length; j++) {
-                copy[j][i] = chs[i][j];
-            }
-        }
-        return copy;
-    }
-
-    private int lazyHammingDistance(char[] first, char[] second, int maxAllowed) {
+    private int lazyHammingDistance(Grid terrain, int firstRow, int secondRow, int maxAllowed) {
         int count = 0;
-        for (int i = 0; i < first.length; i++) {
-            if (first[i] != second[i] && (++count > maxAllowed)) {
+        for (int i = terrain.index(0, firstRow), j = terrain.index(0, secondRow), end = i + terrain.getWidth(); i < end; i++, j++) {
+            if (terrain.get(i) != terrain.get(j) && (++count > maxAllowed)) {
                 break;
             }
         }
         return count;
     }
 
-    @SneakyThrows
-    private List<char[][]> parseInput() {
-        File file = ResourceUtils.getResourceFile("day13.txt");
-        try (
-            FileReader fileReader = new FileReader(file);
-            Scanner scanner = new Scanner(fileReader)
-        ) {
-            List<char[][]> terrains = new ArrayList<>();
-            scanner.useDelimiter("\\n\\n");
-            while (scanner.hasNext()) {
-                try (Scanner scanner1 = new Scanner(scanner.next())) {
-                    List<char[]> terrain = new ArrayList<>();
-                    while (scanner1.hasNextLine()) {
-                        terrain.add(scanner1.nextLine().toCharArray());
-                    }
-                    terrains.add(terrain.toArray(new char[0][]));
-                }
-            }
-            return terrains;
+    @Override
+    public List<Grid> parseInput(MappedInput input) {
+        List<Grid> terrains = new ArrayList<>();
+        while (input.hasNextLine()) {
+            terrains.add(Grid.parse(input));
         }
+        return terrains;
     }
 }
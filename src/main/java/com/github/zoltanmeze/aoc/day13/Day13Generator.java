@@ -0,0 +1,50 @@
+package com.github.zoltanmeze.aoc.day13;
+
+import com.github.zoltanmeze.aoc.InputGenerator;
+
+import java.io.PrintWriter;
+import java.util.SplittableRandom;
+
+/**
+ * Patterns of random rows with an exact reflection reaching the first row and a reflection with a single
+ * smudge reaching the last row, half of the patterns are transposed to reflect across columns instead.
+ * Rows are at least 7 wide, so other reflections are unlikely to appear by chance.
+ */
+public class Day13Generator implements InputGenerator {
+
+    @Override
+    public void generate(SplittableRandom random, int scale, PrintWriter out) {
+        for (int i = 0, patterns = 100 * scale; i < patterns; i++) {
+            if (i > 0) {
+                out.append('\n');
+            }
+            int height = random.nextInt(7, 18);
+            int width = random.nextInt(7, 18);
+            char[][] pattern = new char[height][width];
+            for (char[] row : pattern) {
+                for (int x = 0; x < width; x++) {
+                    row[x] = random.nextBoolean() ? '#' : '.';
+                }
+            }
+            int exact = random.nextInt(1, height / 2); // Rows above the line of the exact reflection
+            int smudged = random.nextInt(1, (height - 2 * exact) / 2 + 1); // Rows below the line of the other one
+            for (int y = 0; y < exact; y++) {
+                pattern[2 * exact - 1 - y] = pattern[y].clone();
+            }
+            for (int y = 0; y < smudged; y++) {
+                pattern[height - 2 * smudged + y] = pattern[height - 1 - y].clone();
+            }
+            int smudge = height - 2 * smudged + random.nextInt(smudged);
+            int x = random.nextInt(width);
+            pattern[smudge][x] = pattern[smudge][x] == '#' ? '.' : '#';
+
+            boolean transpose = random.nextBoolean();
+            for (int row = 0, rows = transpose ? width : height; row < rows; row++) {
+                for (int column = 0, columns = transpose ? height : width; column < columns; column++) {
+                    out.write(transpose ? pattern[column][row] : pattern[row][column]);
+                }
+                out.append('\n');
+            }
+        }
+    }
+}
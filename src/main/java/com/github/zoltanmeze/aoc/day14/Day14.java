@@ -1,20 +1,15 @@
 package com.github.zoltanmeze.aoc.day14;
 
-import com.github.zoltanmeze.aoc.utilities.ResourceUtils;
-import lombok.SneakyThrows;
+import com.github.zoltanmeze.aoc.Puzzle;
+import com.github.zoltanmeze.aoc.utilities.Grid;
+import com.github.zoltanmeze.aoc.utilities.MappedInput;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.File;
-import java.io.FileReader;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
 
 @Slf4j
-public class Day14 implements Runnable {
+public class Day14 implements Puzzle<Grid> {
 
     public static void main(String[] args) {
         new Day14().run();
@@ -26,23 +21,28 @@ public class Day14 implements Runnable {
         log.info("Part two: {}", partTwo());
     }
 
-    public Object partOne() {
-        char[][] dish = parseInput();
+    @Override
+    public Object partOne(Grid input) {
+        Grid dish = input.copy(); // Tilting is done in place, parsed dish is shared
 
         tiltNorth(dish);
 
         return count(dish); // Possible to count in tilt
     }
 
-    public Object partTwo() {
-        char[][] dish = parseInput();
+    @Override
+    public Object partTwo(Grid input) {
+        if (input.getWidth() != input.getHeight()) {
+            throw new RuntimeException("Only square dishes can be rotated in place");
+        }
+        Grid dish = input.copy();
 
         int maxCycles = 1_000_000_000;
 
         Map<String, Integer> cycles = new HashMap<>();
 
         for (int i = 0; i < maxCycles; i++) {
-            Integer cycle = cycles.putIfAbsent(toString(dish), i);
+            Integer cycle = cycles.putIfAbsent(dish.toString(), i);
             if (cycle != null && i + (i - cycle) < maxCycles) {
                 int distance = i - cycle;
                 int next = i + (distance * ((maxCycles - i) / distance));
@@ -58,66 +58,53 @@ public class Day14 implements Runnable {
         return count(dish);
     }
 
-    private long count(char[][] dish) {
+    private long count(Grid dish) {
         long sum = 0L;
-        for (int i = 0; i < dish.length; i++) {
-            for (int j = 0; j < dish[i].length; j++) {
-                if (dish[i][j] == 'O') {
-                    sum += dish.length - i;
-                }
+        for (int i = 0; i < dish.size(); i++) {
+            if (dish.get(i) == 'O') {
+                sum += dish.getHeight() - dish.y(i);
             }
         }
         return sum;
     }
 
-    private void tiltNorth(char[][] dish) {
-        for (int i = 0; i < dish[0].length; i++) {
-            int last = 0;
-            for (int j = 0; j < dish.length; j++) {
-                if (dish[j][i] == '#' || (last == j && dish[j][i] == 'O')) {
-                    last = j + 1;
+    private void tiltNorth(Grid dish) {
+        int stride = dish.getStride();
+        for (int i = 0; i < dish.getWidth(); i++) {
+            int last = dish.index(i, 0);
+            for (int j = last, end = dish.index(i, dish.getHeight()); j < end; j += stride) {
+                byte cell = dish.get(j);
+                if (cell == '#' || (last == j && cell == 'O')) {
+                    last = j + stride;
                     continue;
-                } else if (dish[j][i] != 'O') {
+                } else if (cell != 'O') {
                     continue;
                 }
-                dish[last][i] = dish[j][i];
-                dish[j][i] = '.';
-                last++;
+                dish.set(last, (byte) 'O');
+                dish.set(j, (byte) '.');
+                last += stride;
             }
         }
     }
 
-    private void rotate(char[][] dish) {
-        for (int j = 0; j < dish.length / 2; j++) {
-            for (int i = j; i < dish.length - j - 1; i++) {
-                char temp = dish[j][i];
-                dish[j][i] = dish[dish.length - 1 - i][j];
-                dish[dish.length - 1 - i][j] = dish[dish.length - 1 - j][dish.length - 1 - i];
-                dish[dish.length - 1 - j][dish.length - 1 - i] = dish[i][dish.length - 1 - j];
-                dish[i][dish.length - 1 - j] = temp;
+    /**
+     * Rotates the square dish clockwise in place, the dish has no border so cells are addressed by {@code row * n + column}.
+     */
+    private void rotate(Grid dish) {
+        int n = dish.getWidth();
+        for (int j = 0; j < n / 2; j++) {
+            for (int i = j; i < n - j - 1; i++) {
+                byte temp = dish.get(j * n + i);
+                dish.set(j * n + i, dish.get((n - 1 - i) * n + j));
+                dish.set((n - 1 - i) * n + j, dish.get((n - 1 - j) * n + n - 1 - i));
+                dish.set((n - 1 - j) * n + n - 1 - i, dish.get(i * n + n - 1 - j));
+                dish.set(i * n + n - 1 - j, temp);
             }
         }
     }
 
-    private String toString(char[][] dish) {
-        return Arrays.stream(dish)
-            .parallel()
-            .collect(StringBuilder::new, StringBuilder::append, StringBuilder::append)
-            .toString();
-    }
-
-    @SneakyThrows
-    private char[][] parseInput() {
-        File file = ResourceUtils.getResourceFile("day14.txt");
-        try (
-            FileReader fileReader = new FileReader(file);
-            Scanner scanner = new Scanner(fileReader)
-        ) {
-            List<char[]> dish = new ArrayList<>();
-            while (scanner.hasNextLine()) {
-                dish.add(scanner.nextLine().toCharArray());
-            }
-            return dish.toArray(new char[0][]);
-        }
+    @Override
+    public Grid parseInput(MappedInput input) {
+        return Grid.parse(input);
     }
 }
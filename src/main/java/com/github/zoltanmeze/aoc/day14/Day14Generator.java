@@ -0,0 +1,26 @@
+package com.github.zoltanmeze.aoc.day14;
+
+import com.github.zoltanmeze.aoc.InputGenerator;
+
+import java.io.PrintWriter;
+import java.util.SplittableRandom;
+
+/**
+ * Square dish of round and cube shaped rocks, written row by row so any size fits in memory.
+ */
+public class Day14Generator implements InputGenerator {
+
+    @Override
+    public void generate(SplittableRandom random, int scale, PrintWriter out) {
+        int side = InputGenerator.scaleSide(100, scale);
+        char[] row = new char[side];
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                int cell = random.nextInt(100);
+                row[x] = cell < 20 ? 'O' : cell < 30 ? '#' : '.';
+            }
+            out.write(row);
+            out.append('\n');
+        }
+    }
+}
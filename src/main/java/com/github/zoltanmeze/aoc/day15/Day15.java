@@ -1,20 +1,19 @@
 package com.github.zoltanmeze.aoc.day15;
 
-import com.github.zoltanmeze.aoc.utilities.ResourceUtils;
-import lombok.SneakyThrows;
+import com.github.zoltanmeze.aoc.StreamingPuzzle;
+import com.github.zoltanmeze.aoc.utilities.LineReader;
+import com.github.zoltanmeze.aoc.utilities.MappedInput;
+import com.github.zoltanmeze.aoc.utilities.MappedInput.Line;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.File;
-import java.io.FileReader;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
 
 @Slf4j
-public class Day15 implements Runnable {
+public class Day15 implements StreamingPuzzle<List<String>> {
 
     public static void main(String[] args) {
         new Day15().run();
@@ -26,35 +25,64 @@ public class Day15 implements Runnable {
         log.info("Part two: {}", partTwo());
     }
 
-    public Object partOne() {
-        List<String> input = parseInput();
-
+    @Override
+    public Object partOne(List<String> input) {
         return input.stream()
             .mapToInt(this::calculateHash)
             .reduce(0, Math::addExact);
     }
 
-    public Object partTwo() {
-        List<String> input = parseInput();
-
+    @Override
+    public Object partTwo(List<String> input) {
         Map<Integer, LinkedHashMap<String, Integer>> boxes = new HashMap<>(256);
-
         for (String step : input) {
-            if (step.endsWith("-")) {
-                String label = step.substring(0, step.length() - 1);
-                boxes.computeIfPresent(calculateHash(label), (hash, lenses) -> {
-                    if (lenses.remove(label) != null && lenses.isEmpty()) {
-                        return null;
-                    }
-                    return lenses;
-                });
-            } else {
-                int splitIndex = step.lastIndexOf('=');
-                String label = step.substring(0, splitIndex);
-                int focalLength = Integer.parseInt(step.substring(splitIndex + 1));
-                boxes.computeIfAbsent(calculateHash(label), hash -> new LinkedHashMap<>()).put(label, focalLength); // Not changing order if already exist
+            apply(boxes, step);
+        }
+        return focusingPower(boxes);
+    }
+
+    @Override
+    public Object streamPartOne(LineReader lines) {
+        long sum = 0;
+        while (lines.hasNextLine()) {
+            sum += calculateHash(lines.next(','));
+        }
+        return sum;
+    }
+
+    /**
+     * Steps are read one by one, only the lenses in the boxes are kept.
+     */
+    @Override
+    public Object streamPartTwo(LineReader lines) {
+        Map<Integer, LinkedHashMap<String, Integer>> boxes = new HashMap<>(256);
+        while (lines.hasNextLine()) {
+            Line step = lines.next(',');
+            if (step.length() > 0) {
+                apply(boxes, step.toString());
             }
         }
+        return focusingPower(boxes);
+    }
+
+    private void apply(Map<Integer, LinkedHashMap<String, Integer>> boxes, String step) {
+        if (step.endsWith("-")) {
+            String label = step.substring(0, step.length() - 1);
+            boxes.computeIfPresent(calculateHash(label), (hash, lenses) -> {
+                if (lenses.remove(label) != null && lenses.isEmpty()) {
+                    return null;
+                }
+                return lenses;
+            });
+        } else {
+            int splitIndex = step.lastIndexOf('=');
+            String label = step.substring(0, splitIndex);
+            int focalLength = Integer.parseInt(step.substring(splitIndex + 1));
+            boxes.computeIfAbsent(calculateHash(label), hash -> new LinkedHashMap<>()).put(label, focalLength); // Not changing order if already exist
+        }
+    }
+
+    private int focusingPower(Map<Integer, LinkedHashMap<String, Integer>> boxes) {
         int sum = 0;
         for (var box : boxes.entrySet()) {
             int boxNumber = box.getKey() + 1;
@@ -66,28 +94,28 @@ public class Day15 implements Runnable {
         return sum;
     }
 
-    private int calculateHash(String string) {
+    private int calculateHash(CharSequence string) {
         int code = 0;
-        for (int i : string.toCharArray()) {
-            code = (code + i) * 17 % 256;
+        for (int i = 0; i < string.length(); i++) {
+            code = (code + string.charAt(i)) * 17 % 256;
         }
         return code;
     }
 
-    @SneakyThrows
-    private List<String> parseInput() {
-        File file = ResourceUtils.getResourceFile("day15.txt");
-        try (
-            FileReader fileReader = new FileReader(file);
-            Scanner scanner = new Scanner(fileReader)
-        ) {
-            scanner.useDelimiter(",");
-
-            List<String> sequence = new ArrayList<>();
-            while (scanner.hasNext()) {
-                sequence.add(scanner.next().trim());
+    @Override
+    public List<String> parseInput(MappedInput input) {
+        List<String> sequence = new ArrayList<>();
+        while (input.hasNextLine()) {
+            Line line = input.nextLine();
+            for (int from = 0, to; from < line.length(); from = to + 1) {
+                if ((to = line.indexOf(',', from)) == -1) {
+                    to = line.length();
+                }
+                if (to > from) {
+                    sequence.add(line.subSequence(from, to).toString());
+                }
             }
-            return sequence;
         }
+        return sequence;
     }
 }
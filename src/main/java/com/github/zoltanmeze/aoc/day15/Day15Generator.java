@@ -0,0 +1,38 @@
+package com.github.zoltanmeze.aoc.day15;
+
+import com.github.zoltanmeze.aoc.InputGenerator;
+
+import java.io.PrintWriter;
+import java.util.SplittableRandom;
+
+/**
+ * Single line of steps, lenses are taken from a pool of labels that grows with the scale,
+ * so the boxes keep the same number of lenses on average.
+ */
+public class Day15Generator implements InputGenerator {
+
+    @Override
+    public void generate(SplittableRandom random, int scale, PrintWriter out) {
+        String[] labels = new String[500 * scale];
+        StringBuilder label = new StringBuilder();
+        for (int i = 0; i < labels.length; i++) {
+            label.setLength(0);
+            for (int j = 0, length = random.nextInt(2, 7); j < length; j++) {
+                label.append((char) ('a' + random.nextInt(26)));
+            }
+            labels[i] = label.toString();
+        }
+        for (int i = 0, steps = 4000 * scale; i < steps; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append(labels[random.nextInt(labels.length)]);
+            if (random.nextInt(3) == 0) {
+                out.append('-');
+            } else {
+                out.append('=').append((char) ('1' + random.nextInt(9)));
+            }
+        }
+        out.append('\n');
+    }
+}
@@ -1,26 +1,21 @@
 package com.github.zoltanmeze.aoc.day16;
 
-import com.github.zoltanmeze.aoc.utilities.EnumUtils;
-import com.github.zoltanmeze.aoc.utilities.ResourceUtils;
-import lombok.AllArgsConstructor;
+import com.github.zoltanmeze.aoc.Puzzle;
+import com.github.zoltanmeze.aoc.utilities.Grid;
+import com.github.zoltanmeze.aoc.utilities.MappedInput;
+import lombok.Data;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
-import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.File;
-import java.io.FileReader;
-import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Scanner;
 import java.util.Set;
-import java.util.Stack;
 
 @Slf4j
-public class Day16 implements Runnable {
+public class Day16 implements Puzzle<Grid> {
+
+    private static final byte OUTSIDE = 0;
+    private static final Direction[] DIRECTIONS = Direction.values();
 
     public static void main(String[] args) {
         new Day16().run();
@@ -32,24 +27,23 @@ public class Day16 implements Runnable {
         log.info("Part two: {}", partTwo());
     }
 
-    public Object partOne() {
-        Tile[][] input = parseInput();
+    @Override
+    public Object partOne(Grid input) {
         Position start = Position.of(0, 0, Direction.RIGHT);
 
         return countEnergizedTiles(input, start);
     }
 
-    public Object partTwo() {
-        Tile[][] input = parseInput();
-
-        assert input.length == input[0].length;
+    @Override
+    public Object partTwo(Grid input) {
+        assert input.getWidth() == input.getHeight();
 
-        Set<Position> startingPositions = new HashSet<>(4 * input.length);
-        for (int i = 0; i < input.length; i++) {
+        Set<Position> startingPositions = new HashSet<>(4 * input.getHeight());
+        for (int i = 0; i < input.getHeight(); i++) {
             startingPositions.add(Position.of(0, i, Direction.RIGHT));
-            startingPositions.add(Position.of(input[i].length - 1, i, Direction.LEFT));
+            startingPositions.add(Position.of(input.getWidth() - 1, i, Direction.LEFT));
             startingPositions.add(Position.of(i, 0, Direction.DOWN));
-            startingPositions.add(Position.of(i, input.length - 1, Direction.UP));
+            startingPositions.add(Position.of(i, input.getHeight() - 1, Direction.UP));
         }
 
         return startingPositions.parallelStream()
@@ -58,47 +52,46 @@ public class Day16 implements Runnable {
             .orElseThrow();
     }
 
-    private int countEnergizedTiles(Tile[][] grid, Position start) {
-        byte[][] visited = new byte[grid.length][grid[0].length];
-        int count = 0;
-
-        Stack<Position> stack = new Stack<>();
-        stack.push(start);
+    /**
+     * Follows the beams on the flat grid, beams are encoded as {@code index << 2 | direction} on the stack.
+     * Beams are marked visited when pushed, so every tile and direction pair is pushed at most once.
+     */
+    private int countEnergizedTiles(Grid grid, Position start) {
+        int[] offsets = new int[DIRECTIONS.length];
+        for (Direction direction : DIRECTIONS) {
+            offsets[direction.ordinal()] = grid.offset(direction.x, direction.y);
+        }
+        byte[] visited = new byte[grid.size()];
+        int[] stack = new int[4 * grid.getWidth() * grid.getHeight()];
+
+        int index = grid.index(start.x, start.y);
+        visited[index] = start.direction.mask;
+        stack[0] = index << 2 | start.direction.ordinal();
+        int size = 1;
+        int count = 1;
         do {
-            Position position = stack.pop();
-            if (position.y < 0 || position.x < 0
-                || position.y >= grid.length || position.x >= grid[position.y].length
-                || (visited[position.y][position.x] & position.direction.mask) > 0) {
-                continue;
-            } else if (visited[position.y][position.x] == 0) {
-                count++;
+            int beam = stack[--size];
+            int current = beam >>> 2;
+            for (Direction direction : Tile.fromLabel(grid.get(current)).getNext(DIRECTIONS[beam & 3])) {
+                int next = current + offsets[direction.ordinal()];
+                if (grid.get(next) == OUTSIDE || (visited[next] & direction.mask) != 0) {
+                    continue;
+                } else if (visited[next] == 0) {
+                    count++;
+                }
+                visited[next] |= direction.mask; // Better than constantly shifting bits
+                stack[size++] = next << 2 | direction.ordinal();
             }
-            visited[position.y][position.x] |= position.direction.mask; // Better than constantly shifting bits
-            stack.addAll(position.move(grid));
-        } while (!stack.isEmpty());
+        } while (size > 0);
         return count;
     }
 
-    @ToString
-    @AllArgsConstructor(staticName = "of")
+    @Data(staticConstructor = "of")
     private static class Position {
 
-        private int x;
-        private int y;
-        private Direction direction;
-
-        private List<Position> move(Tile[][] map) {
-            Direction[] directions = map[y][x].getNext(direction);
-            List<Position> next = new ArrayList<>(directions.length);
-            for (Direction direction : directions) {
-                next.add(move(direction));
-            }
-            return next;
-        }
-
-        private Position move(Direction direction) {
-            return Position.of(this.x + direction.x, this.y + direction.y, direction);
-        }
+        private final int x;
+        private final int y;
+        private final Direction direction;
     }
 
     @Getter
@@ -128,10 +121,20 @@ public class Day16 implements Runnable {
         private final char label;
         private final Direction[][] next;
 
-        private static final Map<Character, Tile> LOOKUP_MAP = EnumUtils.toReverseLookupMap(Tile.class, Tile::getLabel);
+        private static final Tile[] LOOKUP_TABLE = new Tile[128];
 
-        public static Tile fromLabel(char label) {
-            return LOOKUP_MAP.get(label);
+        static {
+            for (Tile tile : values()) {
+                LOOKUP_TABLE[tile.label] = tile;
+            }
+        }
+
+        public static Tile fromLabel(byte label) {
+            Tile tile = label >= 0 ? LOOKUP_TABLE[label] : null;
+            if (tile == null) {
+                throw new RuntimeException("Unknown tile '" + (char) (label & 0xFF) + "'");
+            }
+            return tile;
         }
 
         public Direction[] getNext(Direction current) {
@@ -139,22 +142,14 @@ public class Day16 implements Runnable {
         }
     }
 
-    @SneakyThrows
-    private Tile[][] parseInput() {
-        File file = ResourceUtils.getResourceFile("day16.txt");
-        try (
-            FileReader fileReader = new FileReader(file);
-            Scanner scanner = new Scanner(fileReader)
-        ) {
-            List<Tile[]> grid = new ArrayList<>();
-            while (scanner.hasNextLine()) {
-                grid.add(scanner.nextLine()
-                    .codePoints()
-                    .mapToObj(x -> (char) x)
-                    .map(Tile::fromLabel)
-                    .toArray(Tile[]::new));
+    @Override
+    public Grid parseInput(MappedInput input) {
+        Grid grid = Grid.parse(input, 1, OUTSIDE);
+        for (int y = 0; y < grid.getHeight(); y++) {
+            for (int x = 0; x < grid.getWidth(); x++) {
+                Tile.fromLabel(grid.get(x, y)); // Validate labels once, the hot loop relies on them
             }
-            return grid.toArray(new Tile[0][]);
         }
+        return grid;
     }
 }
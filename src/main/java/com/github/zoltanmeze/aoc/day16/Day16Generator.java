@@ -0,0 +1,27 @@
+package com.github.zoltanmeze.aoc.day16;
+
+import com.github.zoltanmeze.aoc.InputGenerator;
+
+import java.io.PrintWriter;
+import java.util.SplittableRandom;
+
+/**
+ * Square contraption of mostly empty space with mirrors and splitters scattered over it.
+ */
+public class Day16Generator implements InputGenerator {
+
+    private static final String DEVICES = "/\\-|";
+
+    @Override
+    public void generate(SplittableRandom random, int scale, PrintWriter out) {
+        int side = InputGenerator.scaleSide(110, scale);
+        char[] row = new char[side];
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                row[x] = random.nextInt(10) == 0 ? DEVICES.charAt(random.nextInt(DEVICES.length())) : '.';
+            }
+            out.write(row);
+            out.append('\n');
+        }
+    }
+}
@@ -1,24 +1,32 @@
 package com.github.zoltanmeze.aoc.day17;
 
-import com.github.zoltanmeze.aoc.utilities.ResourceUtils;
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import com.github.zoltanmeze.aoc.Puzzle;
+import com.github.zoltanmeze.aoc.utilities.Grid;
+import com.github.zoltanmeze.aoc.utilities.MappedInput;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.File;
-import java.io.FileReader;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
-import java.util.Objects;
-import java.util.PriorityQueue;
-import java.util.Scanner;
 
 @Slf4j
-public class Day17 implements Runnable {
+public class Day17 implements Puzzle<Grid> {
+
+    private static final byte OUTSIDE = 0;
+    private static final Direction[] DIRECTIONS = Direction.values();
+    /**
+     * Directions to turn to from each direction, left and right of it.
+     */
+    private static final int[][] TURNS = new int[DIRECTIONS.length][];
+
+    static {
+        for (Direction direction : DIRECTIONS) {
+            TURNS[direction.ordinal()] = new int[] {
+                (direction.ordinal() + 1) % DIRECTIONS.length,
+                (direction.ordinal() + 3) % DIRECTIONS.length
+            };
+        }
+    }
 
     public static void main(String[] args) {
         new Day17().run();
@@ -30,93 +38,132 @@ public class Day17 implements Runnable {
         log.info("Part two: {}", partTwo());
     }
 
-    public Object partOne() {
-        int[][] input = parseInput();
-
-        Coordinate start = Coordinate.of(0, 0);
-        Coordinate end = Coordinate.of(input[0].length - 1, input.length - 1);
+    @Override
+    public Object partOne(Grid input) {
+        int start = input.index(0, 0);
+        int end = input.index(input.getWidth() - 1, input.getHeight() - 1);
 
         return calculateLeastHeatLoss(start, end, input, 0, 3);
     }
 
-    private Object partTwo() {
-        int[][] input = parseInput();
-
-        Coordinate start = Coordinate.of(0, 0);
-        Coordinate end = Coordinate.of(input[0].length - 1, input.length - 1);
+    @Override
+    public Object partTwo(Grid input) {
+        int start = input.index(0, 0);
+        int end = input.index(input.getWidth() - 1, input.getHeight() - 1);
 
         return calculateLeastHeatLoss(start, end, input, 4, 10);
     }
 
-    private int calculateLeastHeatLoss(Coordinate start, Coordinate end, int[][] map, int minSameDirection, int maxSameDirection) {
-        PriorityQueue<State> queue = new PriorityQueue<>();
-        queue.add(State.of(start, Direction.RIGHT, 0));
-        queue.add(State.of(start, Direction.DOWN, 0));
-
-        Integer[][][] heatLosses = new Integer[map.length][map[0].length][4];
-
-        State state;
-        while (!queue.isEmpty() && !(state = queue.poll()).coordinate.equals(end)) {
-            Coordinate coordinate = state.coordinate;
-            Direction direction = state.direction;
+    /**
+     * Dijkstra over {@code index << 2 | direction} states of the flat grid, states are queued as
+     * {@code heatLoss << 32 | state} so the queue orders them by heat loss without any boxing.
+     */
+    private int calculateLeastHeatLoss(int start, int end, Grid map, int minSameDirection, int maxSameDirection) {
+        int[] offsets = new int[DIRECTIONS.length];
+        for (Direction direction : DIRECTIONS) {
+            offsets[direction.ordinal()] = map.offset(direction.x, direction.y);
+        }
 
-            Integer heatLoss = heatLosses[coordinate.y][coordinate.x][direction.ordinal()];
-            if (heatLoss != null && state.heatLoss > heatLoss) {
+        LongHeap queue = new LongHeap(map.size());
+        queue.offer(state(start, Direction.RIGHT.ordinal(), 0));
+        queue.offer(state(start, Direction.DOWN.ordinal(), 0));
+
+        int[] heatLosses = new int[map.size() * 4];
+        Arrays.fill(heatLosses, Integer.MAX_VALUE);
+
+        while (!queue.isEmpty()) {
+            long state = queue.poll();
+            int coordinate = (int) state >>> 2;
+            int direction = (int) state & 3;
+            int heatLoss = (int) (state >>> 32);
+            if (coordinate == end) {
+                break;
+            } else if (heatLoss > heatLosses[coordinate << 2 | direction]) {
                 continue;
             }
-            heatLoss = state.heatLoss;
             for (int i = 1; i <= maxSameDirection; i++) {
-                coordinate = coordinate.move(direction);
-                if (!coordinate.inBounds(start, end)) {
+                coordinate += offsets[direction];
+                byte cell = map.get(coordinate);
+                if (cell == OUTSIDE) {
                     break;
                 }
-                heatLoss += map[coordinate.y][coordinate.x];
+                heatLoss += cell;
                 if (i < minSameDirection) {
                     continue;
                 }
-                for (Direction turnDirection : direction.turn()) {
-                    Integer previousHeatLoss = heatLosses[coordinate.y][coordinate.x][turnDirection.ordinal()];
-                    if (previousHeatLoss == null || heatLoss < previousHeatLoss) {
-                        queue.offer(State.of(coordinate, turnDirection, heatLoss));
-                        heatLosses[coordinate.y][coordinate.x][turnDirection.ordinal()] = heatLoss;
+                for (int turnDirection : TURNS[direction]) {
+                    int next = coordinate << 2 | turnDirection;
+                    if (heatLoss < heatLosses[next]) {
+                        queue.offer(state(coordinate, turnDirection, heatLoss));
+                        heatLosses[next] = heatLoss;
                     }
                 }
             }
         }
-        return Arrays.stream(heatLosses[end.y][end.x])
-            .filter(Objects::nonNull)
-            .reduce(Math::min)
-            .orElseThrow();
+        int min = Integer.MAX_VALUE;
+        for (int direction = 0; direction < DIRECTIONS.length; direction++) {
+            min = Math.min(min, heatLosses[end << 2 | direction]);
+        }
+        if (min == Integer.MAX_VALUE) {
+            throw new RuntimeException("End is not reachable");
+        }
+        return min;
     }
 
-    @Data(staticConstructor = "of")
-    private static class State implements Comparable<State> {
-        private final Coordinate coordinate;
-        private final Direction direction;
-        private final int heatLoss;
-
-        @Override
-        public int compareTo(State o) {
-            return heatLoss - o.heatLoss;
-        }
+    private static long state(int coordinate, int direction, int heatLoss) {
+        return (long) heatLoss << 32 | coordinate << 2 | direction;
     }
 
-    @Data
-    @AllArgsConstructor(staticName = "of")
-    private static class Coordinate {
-        private final int x;
-        private final int y;
+    /**
+     * Binary min heap of primitive longs.
+     */
+    private static class LongHeap {
+
+        private long[] heap;
+        private int size;
 
-        public Coordinate add(Coordinate other) {
-            return Coordinate.of(x + other.x, y + other.y);
+        LongHeap(int capacity) {
+            this.heap = new long[Math.max(capacity, 16)];
         }
 
-        public Coordinate move(Direction direction) {
-            return add(direction.next);
+        boolean isEmpty() {
+            return size == 0;
         }
 
-        public boolean inBounds(Coordinate start, Coordinate end) {
-            return x >= start.x && y >= start.y && x <= end.x && y <= end.y;
+        void offer(long value) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= value) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = value;
+        }
+
+        long poll() {
+            long result = heap[0];
+            long value = heap[--size];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (value <= heap[child]) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = value;
+            return result;
         }
     }
 
@@ -124,36 +171,27 @@ public class Day17 implements Runnable {
     @RequiredArgsConstructor
     private enum Direction {
 
-        UP(Coordinate.of(0, -1)),
-        LEFT(Coordinate.of(-1, 0)),
-        DOWN(Coordinate.of(0, 1)),
-        RIGHT(Coordinate.of(1, 0));
-
-        private final Coordinate next;
+        UP(0, -1),
+        LEFT(-1, 0),
+        DOWN(0, 1),
+        RIGHT(1, 0);
 
-        public Direction[] turn() {
-            return new Direction[] {
-                Direction.values()[(ordinal() + 1) % Direction.values().length],
-                Direction.values()[(ordinal() + 3) % Direction.values().length]
-            };
-        }
+        private final int x;
+        private final int y;
     }
 
-    @SneakyThrows
-    private int[][] parseInput() {
-        File file = ResourceUtils.getResourceFile("day17.txt");
-        try (
-            FileReader fileReader = new FileReader(file);
-            Scanner scanner = new Scanner(fileReader)
-        ) {
-            List<int[]> map = new ArrayList<>();
-            while (scanner.hasNextLine()) {
-                map.add(scanner.nextLine()
-                    .codePoints()
-                    .map(x -> Integer.parseInt(String.valueOf((char) x)))
-                    .toArray());
+    @Override
+    public Grid parseInput(MappedInput input) {
+        Grid map = Grid.parse(input, 1, OUTSIDE);
+        for (int y = 0; y < map.getHeight(); y++) {
+            for (int x = 0; x < map.getWidth(); x++) {
+                int heatLoss = map.get(x, y) - '0';
+                if (heatLoss < 1 || heatLoss > 9) {
+                    throw new RuntimeException("Invalid heat loss '" + (char) map.get(x, y) + "' at " + x + ", " + y);
+                }
+                map.set(x, y, (byte) heatLoss);
             }
-            return map.toArray(new int[0][]);
         }
+        return map;
     }
 }
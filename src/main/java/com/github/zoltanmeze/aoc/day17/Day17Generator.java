@@ -0,0 +1,29 @@
+package com.github.zoltanmeze.aoc.day17;
+
+import com.github.zoltanmeze.aoc.InputGenerator;
+
+import java.io.PrintWriter;
+import java.util.SplittableRandom;
+
+/**
+ * Square map of heat losses between 1 and 9, lower towards the middle like the puzzle input.
+ */
+public class Day17Generator implements InputGenerator {
+
+    @Override
+    public void generate(SplittableRandom random, int scale, PrintWriter out) {
+        int side = InputGenerator.scaleSide(141, scale);
+        double center = (side - 1) / 2d;
+        char[] row = new char[side];
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                // Distance from the middle, 0 in the middle and 1 in the corners
+                double distance = Math.hypot(x - center, y - center) / Math.hypot(center, center);
+                int base = 1 + (int) Math.round(5 * Math.min(distance, 1d));
+                row[x] = (char) ('0' + Math.min(9, base + random.nextInt(4)));
+            }
+            out.write(row);
+            out.append('\n');
+        }
+    }
+}
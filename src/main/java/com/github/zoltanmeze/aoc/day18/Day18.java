@@ -1,25 +1,21 @@
 package com.github.zoltanmeze.aoc.day18;
 
+import com.github.zoltanmeze.aoc.Puzzle;
+import com.github.zoltanmeze.aoc.utilities.ByteTokenizer;
 import com.github.zoltanmeze.aoc.utilities.EnumUtils;
-import com.github.zoltanmeze.aoc.utilities.ResourceUtils;
+import com.github.zoltanmeze.aoc.utilities.MappedInput;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.File;
-import java.io.FileReader;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Slf4j
-public class Day18 implements Runnable {
+public class Day18 implements Puzzle<Day18.Plan[]> {
 
     public static void main(String[] args) {
         new Day18().run();
@@ -31,15 +27,13 @@ public class Day18 implements Runnable {
         log.info("Part two: {}", partTwo());
     }
 
-    public Object partOne() {
-        Plan[] input = parseInput();
-
+    @Override
+    public Object partOne(Plan[] input) {
         return calculatePolygonArea(input);
     }
 
-    private Object partTwo() {
-        Plan[] input = parseInput();
-
+    @Override
+    public Object partTwo(Plan[] input) {
         Plan[] newPlan = new Plan[input.length];
 
         for (int i = 0; i < input.length; i++) {
@@ -102,34 +96,27 @@ public class Day18 implements Runnable {
     }
 
     @Data(staticConstructor = "of")
-    private static class Plan {
+    static class Plan {
         private final Direction direction;
         private final int length;
         private final String color;
     }
 
-    @SneakyThrows
-    private Plan[] parseInput() {
-        File file = ResourceUtils.getResourceFile("day18.txt");
-        try (
-            FileReader fileReader = new FileReader(file);
-            Scanner scanner = new Scanner(fileReader)
-        ) {
-            List<Plan> plans = new ArrayList<>();
-            Pattern patter = Pattern.compile("^(?<DIRECTION>[URDL])\\s(?<LENGTH>\\d+)\\s\\(#(?<COLOR>[0-9a-h]{6})\\)$");
-            while (scanner.hasNextLine()) {
-                Matcher matcher = patter.matcher(scanner.nextLine());
-                if (!matcher.matches()) {
-                    throw new RuntimeException();
-                }
-                plans.add(Plan.of(
-                    Direction.fromLabel(matcher.group("DIRECTION").charAt(0)),
-                    Integer.parseInt(matcher.group("LENGTH")),
-                    matcher.group("COLOR")
-                ));
-
-            }
-            return plans.toArray(new Plan[0]);
+    @Override
+    public Plan[] parseInput(MappedInput input) {
+        ByteTokenizer tokenizer = ByteTokenizer.of(input);
+
+        List<Plan> plans = new ArrayList<>();
+        while (tokenizer.hasNext()) {
+            Direction direction = Direction.fromLabel(tokenizer.nextChar());
+            int length = tokenizer.nextInt();
+            tokenizer.expect(" (#");
+            String color = tokenizer.nextWord();
+            tokenizer.expect(')');
+            tokenizer.expectEndOfLine();
+
+            plans.add(Plan.of(direction, length, color));
         }
+        return plans.toArray(new Plan[0]);
     }
 }
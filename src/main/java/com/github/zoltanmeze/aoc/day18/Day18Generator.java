@@ -0,0 +1,67 @@
+package com.github.zoltanmeze.aoc.day18;
+
+import com.github.zoltanmeze.aoc.InputGenerator;
+
+import java.io.PrintWriter;
+import java.util.SplittableRandom;
+
+/**
+ * Dig plans of two random loops with the same number of steps, one with short steps for part one and one with long
+ * steps hidden in the colors for part two. A loop is a row of bars standing above and hanging below a horizontal
+ * line, so it never crosses itself, and it is rotated randomly. Widths are kept small enough for the coordinates
+ * to fit an int at any scale.
+ */
+public class Day18Generator implements InputGenerator {
+
+    private static final char[] DIRECTIONS = {'R', 'D', 'L', 'U'};
+    private static final int MAX_HEX_LENGTH = 0xFFFFF;
+
+    @Override
+    public void generate(SplittableRandom random, int scale, PrintWriter out) {
+        int bars = 160 * scale;
+        int[][] first = outline(random, bars, 10, 5);
+        int[][] second = outline(random, bars, Math.min(MAX_HEX_LENGTH, (1 << 30) / bars), MAX_HEX_LENGTH / 2);
+        for (int i = 0; i < first[0].length; i++) {
+            out.append(DIRECTIONS[first[0][i]]).append(' ').append(String.valueOf(first[1][i]))
+                .append(" (#").append(String.format("%05x", second[1][i])).append((char) ('0' + second[0][i])).append(")\n");
+        }
+    }
+
+    /**
+     * Directions and lengths of {@code 4 * bars} steps, starting from the bottom left corner:
+     * up and over the bars standing on the line from left to right, then back under the hanging bars, which have
+     * the same widths in reverse order.
+     */
+    private int[][] outline(SplittableRandom random, int bars, int maxWidth, int maxHeight) {
+        int[] widths = new int[bars];
+        for (int i = 0; i < bars; i++) {
+            widths[i] = random.nextInt(1, maxWidth + 1);
+        }
+        int[] directions = new int[4 * bars];
+        int[] lengths = new int[directions.length];
+        int rotation = random.nextInt(DIRECTIONS.length);
+        int step = 0;
+        int start = -random.nextInt(1, maxHeight + 1); // Depth of the last hanging bar, where the loop closes
+        int y = start;
+        for (int side = 0; side < 2; side++) {
+            for (int bar = 0; bar < bars; bar++) {
+                int next = start;
+                if (side == 0 || bar < bars - 1) {
+                    boolean beforeLast = side == 1 && bar == bars - 2;
+                    do {
+                        next = random.nextInt(1, maxHeight + 1) * (side == 0 ? 1 : -1);
+                    } while (next == y || (beforeLast && next == start));
+                }
+                directions[step] = next > y ? 3 : 1;
+                lengths[step++] = Math.abs(next - y);
+                y = next;
+                directions[step] = side == 0 ? 0 : 2;
+                lengths[step++] = widths[side == 0 ? bar : bars - 1 - bar];
+            }
+        }
+        for (int i = 0; i < directions.length; i++) {
+            directions[i] = (directions[i] + rotation) % DIRECTIONS.length;
+        }
+        return new int[][] {directions, lengths};
+    }
+}
@@ -1,29 +1,25 @@
 package com.github.zoltanmeze.aoc.day19;
 
+import com.github.zoltanmeze.aoc.Puzzle;
+import com.github.zoltanmeze.aoc.utilities.ByteTokenizer;
 import com.github.zoltanmeze.aoc.utilities.EnumUtils;
-import com.github.zoltanmeze.aoc.utilities.ResourceUtils;
+import com.github.zoltanmeze.aoc.utilities.MappedInput;
 import lombok.Data;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.File;
-import java.io.FileReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
 import java.util.Stack;
 import java.util.function.BiPredicate;
 import java.util.function.Predicate;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Slf4j
-public class Day19 implements Runnable {
+public class Day19 implements Puzzle<Day19.PartOrganizerSystem> {
 
     public static void main(String[] args) {
         new Day19().run();
@@ -35,8 +31,8 @@ public class Day19 implements Runnable {
         log.info("Part two: {}", partTwo());
     }
 
-    public Object partOne() {
-        PartOrganizerSystem input = parseInput();
+    @Override
+    public Object partOne(PartOrganizerSystem input) {
         long sum = 0L;
         for (Part part : input.parts) {
             String workflow = "in";
@@ -56,9 +52,8 @@ public class Day19 implements Runnable {
         return sum;
     }
 
-    private Object partTwo() {
-        PartOrganizerSystem input = parseInput();
-
+    @Override
+    public Object partTwo(PartOrganizerSystem input) {
         Stack<State> stack = new Stack<>();
         stack.add(State.of(Part.of(1, 1, 1, 1), Part.of(4000, 4000, 4000, 4000), "in"));
 
@@ -183,74 +178,59 @@ public class Day19 implements Runnable {
     }
 
     @Data(staticConstructor = "of")
-    private static class PartOrganizerSystem {
+    static class PartOrganizerSystem {
 
         private final Map<String, List<Rule>> workflows;
         private final List<Part> parts;
 
     }
 
-    @SneakyThrows
-    private PartOrganizerSystem parseInput() {
-        File file = ResourceUtils.getResourceFile("day19.txt");
-        try (
-            FileReader fileReader = new FileReader(file);
-            Scanner scanner = new Scanner(fileReader)
-        ) {
-            scanner.useDelimiter("\\n\\n");
-
-            Pattern workflowPattern = Pattern.compile("^(?<WORKFLOW>\\w+)\\{(?<RULES>.*)}$");
-            Pattern rulePattern = Pattern.compile("^(?<CONDITION>(?<OPERAND1>[xsam])(?<OPERATOR>[<>])(?<OPERAND2>\\d+):)?(?<DESTINATION>[a-z]+|A|R)$");
-            Pattern partPattern = Pattern.compile("^\\{x=(?<X>\\d+),m=(?<M>\\d+),a=(?<A>\\d+),s=(?<S>\\d+)}$");
-
-            if (!scanner.hasNext()) {
-                throw new RuntimeException();
-            }
-            Map<String, List<Rule>> workflows = new HashMap<>();
-            try (Scanner scanner1 = new Scanner(scanner.next())) {
-                while (scanner1.hasNextLine()) {
-                    Matcher matcher = workflowPattern.matcher(scanner1.nextLine());
-                    if (!matcher.matches()) {
-                        throw new RuntimeException();
-                    }
-                    String workflow = matcher.group("WORKFLOW");
-                    List<Rule> rulesList = new ArrayList<>();
-                    for (String rule : matcher.group("RULES").split(",")) {
-                        matcher = rulePattern.matcher(rule);
-                        if (!matcher.matches()) {
-                            throw new RuntimeException();
-                        }
-                        String destination = matcher.group("DESTINATION");
-                        if (matcher.group("CONDITION") == null) {
-                            rulesList.add(Rule.of(destination, null, null, null));
-                        } else {
-                            var operand1 = matcher.group("OPERAND1").charAt(0);
-                            var operator = Operator.fromLabel(matcher.group("OPERATOR").charAt(0));
-                            var operand2 = Integer.parseInt(matcher.group("OPERAND2"));
-                            rulesList.add(Rule.of(destination, operand1, operator, operand2));
-                        }
-                    }
-                    workflows.put(workflow, rulesList);
-                }
-            }
-            if (!scanner.hasNext()) {
-                throw new RuntimeException();
-            }
-            List<Part> parts = new ArrayList<>();
-            try (Scanner scanner1 = new Scanner(scanner.next())) {
-                while (scanner1.hasNextLine()) {
-                    Matcher matcher = partPattern.matcher(scanner1.nextLine());
-                    if (!matcher.matches()) {
-                        throw new RuntimeException();
-                    }
-                    parts.add(Part.of(
-                        Integer.parseInt(matcher.group("X")), Integer.parseInt(matcher.group("M")),
-                        Integer.parseInt(matcher.group("A")), Integer.parseInt(matcher.group("S"))
-                    ));
-                }
-            }
+    @Override
+    public PartOrganizerSystem parseInput(MappedInput input) {
+        ByteTokenizer tokenizer = ByteTokenizer.of(input);
 
-            return PartOrganizerSystem.of(workflows, parts);
+        if (!tokenizer.hasNext()) {
+            throw new RuntimeException();
         }
+        Map<String, List<Rule>> workflows = new HashMap<>();
+        while (tokenizer.hasNext() && !tokenizer.acceptEndOfLine()) {
+            String workflow = tokenizer.nextWord();
+            tokenizer.expect('{');
+            List<Rule> rulesList = new ArrayList<>();
+            do {
+                int next = tokenizer.peek(1); // Operator follows a single character attribute
+                if (next == '<' || next == '>') {
+                    var operand1 = tokenizer.nextChar();
+                    var operator = Operator.fromLabel(tokenizer.nextChar());
+                    var operand2 = tokenizer.nextInt();
+                    tokenizer.expect(':');
+                    rulesList.add(Rule.of(tokenizer.nextWord(), operand1, operator, operand2));
+                } else {
+                    rulesList.add(Rule.of(tokenizer.nextWord(), null, null, null));
+                }
+            } while (tokenizer.accept(','));
+            tokenizer.expect('}');
+            tokenizer.expectEndOfLine();
+            workflows.put(workflow, rulesList);
+        }
+        if (!tokenizer.hasNext()) {
+            throw new RuntimeException();
+        }
+        List<Part> parts = new ArrayList<>();
+        while (tokenizer.hasNext()) {
+            tokenizer.expect("{x=");
+            int x = tokenizer.nextInt();
+            tokenizer.expect(",m=");
+            int m = tokenizer.nextInt();
+            tokenizer.expect(",a=");
+            int a = tokenizer.nextInt();
+            tokenizer.expect(",s=");
+            int s = tokenizer.nextInt();
+            tokenizer.expect('}');
+            tokenizer.expectEndOfLine();
+            parts.add(Part.of(x, m, a, s));
+        }
+
+        return PartOrganizerSystem.of(workflows, parts);
     }
 }
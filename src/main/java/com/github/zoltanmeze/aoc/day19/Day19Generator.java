@@ -0,0 +1,130 @@
+package com.github.zoltanmeze.aoc.day19;
+
+import com.github.zoltanmeze.aoc.InputGenerator;
+
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Workflows forming a random tree below {@code in}, every workflow is the destination of exactly one rule,
+ * followed by random parts. New workflows are mostly attached to the rules of the latest workflows,
+ * which gives long chains of workflows instead of a shallow bushy tree.
+ * Conditions only split the ratings which can still reach the workflow, so no path has contradicting conditions.
+ */
+public class Day19Generator implements InputGenerator {
+
+    private static final String ATTRIBUTES = "xmas";
+    private static final int MAX_RULES = 4;
+
+    @Override
+    public void generate(SplittableRandom random, int scale, PrintWriter out) {
+        int workflows = 550 * scale;
+        int maxRules = workflows * MAX_RULES;
+        int[] firstRules = new int[workflows + 1];
+        // Condition of every rule, the last rule of a workflow has none
+        int[] attributes = new int[maxRules];
+        boolean[] lesser = new boolean[maxRules];
+        int[] numbers = new int[maxRules];
+        // Ratings reaching the destination of every rule, minimum and maximum of the four attributes
+        int[] ranges = new int[maxRules * 8];
+        // Destination of every rule, rules left open at the end accept (-1) or reject (-2)
+        int[] destinations = new int[maxRules];
+        int[] open = new int[maxRules];
+        int openSize = 0;
+
+        int[] range = new int[8];
+        for (int workflow = 0; workflow < workflows; workflow++) {
+            if (workflow == 0) {
+                Arrays.fill(range, 0, 4, 1);
+                Arrays.fill(range, 4, 8, 4000);
+            } else {
+                int index = random.nextBoolean() ? openSize - 1 - random.nextInt(Math.min(openSize, 4)) : random.nextInt(openSize);
+                int slot = open[index];
+                open[index] = open[--openSize];
+                destinations[slot] = workflow;
+                System.arraycopy(ranges, slot * 8, range, 0, 8);
+            }
+            int rule = firstRules[workflow];
+            for (int count = random.nextInt(1, MAX_RULES); count > 0; count--, rule++) {
+                int attribute = random.nextInt(4);
+                for (int i = 0; i < 4 && range[4 + attribute] == range[attribute]; i++) {
+                    attribute = (attribute + 1) % 4; // Single rating left, try the next attribute
+                }
+                int min = range[attribute];
+                int max = range[4 + attribute];
+                if (min == max) {
+                    break;
+                }
+                attributes[rule] = attribute;
+                lesser[rule] = random.nextBoolean();
+                System.arraycopy(range, 0, ranges, rule * 8, 8);
+                if (lesser[rule]) {
+                    numbers[rule] = random.nextInt(min + 1, max + 1);
+                    ranges[rule * 8 + 4 + attribute] = numbers[rule] - 1;
+                    range[attribute] = numbers[rule];
+                } else {
+                    numbers[rule] = random.nextInt(min, max);
+                    ranges[rule * 8 + attribute] = numbers[rule] + 1;
+                    range[4 + attribute] = numbers[rule];
+                }
+                open[openSize++] = rule;
+            }
+            System.arraycopy(range, 0, ranges, rule * 8, 8);
+            open[openSize++] = rule;
+            firstRules[workflow + 1] = rule + 1;
+        }
+        for (int i = 0; i < openSize; i++) {
+            destinations[open[i]] = random.nextBoolean() ? -1 : -2;
+        }
+
+        int width = 3;
+        for (long capacity = 26L * 26 * 26; capacity < workflows; capacity *= 26) {
+            width++;
+        }
+        int[] order = new int[workflows];
+        for (int i = 0; i < workflows; i++) {
+            int j = random.nextInt(i + 1);
+            order[i] = order[j];
+            order[j] = i;
+        }
+        for (int workflow : order) {
+            out.append(name(workflow, width)).append('{');
+            for (int rule = firstRules[workflow], last = firstRules[workflow + 1] - 1; rule <= last; rule++) {
+                if (rule < last) {
+                    out.append(ATTRIBUTES.charAt(attributes[rule]))
+                        .append(lesser[rule] ? '<' : '>')
+                        .append(String.valueOf(numbers[rule]))
+                        .append(':');
+                }
+                int destination = destinations[rule];
+                out.append(destination == -1 ? "A" : destination == -2 ? "R" : name(destination, width));
+                out.append(rule < last ? "," : "}\n");
+            }
+        }
+
+        out.append('\n');
+        for (int i = 0, parts = 200 * scale; i < parts; i++) {
+            out.append("{x=").append(String.valueOf(random.nextInt(1, 4001)))
+                .append(",m=").append(String.valueOf(random.nextInt(1, 4001)))
+                .append(",a=").append(String.valueOf(random.nextInt(1, 4001)))
+                .append(",s=").append(String.valueOf(random.nextInt(1, 4001)))
+                .append("}\n");
+        }
+    }
+
+    /**
+     * Name of the workflow, lower case letters for all but the first one, which is {@code in}.
+     */
+    private static String name(int workflow, int width) {
+        if (workflow == 0) {
+            return "in";
+        }
+        char[] name = new char[width];
+        for (int i = width - 1; i >= 0; i--) {
+            name[i] = (char) ('a' + workflow % 26);
+            workflow /= 26;
+        }
+        return new String(name);
+    }
+}
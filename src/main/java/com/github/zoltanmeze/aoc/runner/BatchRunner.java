@@ -0,0 +1,191 @@
+package com.github.zoltanmeze.aoc.runner;
+
+import com.github.zoltanmeze.aoc.Puzzle;
+import com.github.zoltanmeze.aoc.StreamingPuzzle;
+import com.github.zoltanmeze.aoc.utilities.LineReader;
+import com.github.zoltanmeze.aoc.utilities.MappedInput;
+import lombok.Data;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Solves every input file of a directory with the same day, as many at the same time as there are threads.
+ * Inputs are parsed directly from their files (bypassing the input cache), every worker thread keeps its own puzzle
+ * instance and output buffer, so after the first few inputs only warmed up code is running.
+ * Results are written as soon as they are ready, one tab separated line per input, in completion order:
+ *
+ * <pre>
+ * file    part one    part two    nanos    failure
+ * </pre>
+ *
+ * <pre>
+ * BatchRunner --day=Day07 --input=directory [--output=results.tsv] [--threads=N] [--streaming]
+ * </pre>
+ */
+@Slf4j
+public class BatchRunner {
+
+    private static final String PUZZLE_PACKAGE = Puzzle.class.getPackageName();
+
+    private final ThreadLocal<Puzzle<Object>> puzzles;
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(256));
+    private final boolean streaming;
+
+    public BatchRunner(Class<?> puzzleClass, boolean streaming) {
+        if (!Puzzle.class.isAssignableFrom(puzzleClass)) {
+            throw new IllegalArgumentException(puzzleClass.getSimpleName() + " is not a puzzle");
+        }
+        if (streaming && !StreamingPuzzle.class.isAssignableFrom(puzzleClass)) {
+            throw new IllegalArgumentException(puzzleClass.getSimpleName() + " can't be solved while streaming");
+        }
+        this.puzzles = ThreadLocal.withInitial(() -> newPuzzle(puzzleClass));
+        this.streaming = streaming;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String day = null;
+        Path input = null;
+        Path output = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean streaming = false;
+        for (String arg : args) {
+            if (arg.startsWith("--day=")) {
+                day = arg.substring("--day=".length());
+            } else if (arg.startsWith("--input=")) {
+                input = Path.of(arg.substring("--input=".length()));
+            } else if (arg.startsWith("--output=")) {
+                output = Path.of(arg.substring("--output=".length()));
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.equals("--streaming")) {
+                streaming = true;
+            } else {
+                throw new IllegalArgumentException("Unknown argument " + arg);
+            }
+        }
+        if (day == null || input == null) {
+            throw new IllegalArgumentException("Missing --day or --input argument");
+        }
+        if (output == null) {
+            output = Path.of(day.toLowerCase() + "-results.tsv");
+        }
+        Class<?> puzzleClass = Class.forName(PUZZLE_PACKAGE + "." + day.toLowerCase() + "." + day);
+
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(input)) {
+            files = stream.filter(Files::isRegularFile).sorted().toList();
+        }
+        BatchRunner runner = new BatchRunner(puzzleClass, streaming);
+        ExecutorService executor = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        int failures;
+        try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            failures = runner.solveAll(files, executor, writer);
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        log.info("Solved {} inputs of {} ({} failed) in {} s, {} inputs/s, results written to {}", files.size(), day,
+            failures, String.format("%.3f", seconds), String.format("%.1f", files.size() / seconds), output.toAbsolutePath());
+    }
+
+    /**
+     * Solves every file, and writes the results as they are ready. Returns the number of inputs which failed.
+     */
+    public int solveAll(List<Path> files, ExecutorService executor, Writer writer) {
+        int[] failures = {0};
+        solveAll(files, executor, result -> {
+            StringBuilder line = buffers.get();
+            line.setLength(0);
+            line.append(result.file).append('\t')
+                .append(result.answerOne).append('\t')
+                .append(result.answerTwo).append('\t')
+                .append(result.nanos).append('\t')
+                .append(result.failure == null ? "" : result.failure.toString().replace('\t', ' ').replace('\n', ' '))
+                .append('\n');
+            synchronized (writer) {
+                try {
+                    writer.append(line);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                failures[0] += result.failure == null ? 0 : 1;
+            }
+        });
+        return failures[0];
+    }
+
+    /**
+     * Solves every file, the consumer is called on the worker threads as soon as an input is solved.
+     */
+    @SneakyThrows
+    public void solveAll(List<Path> files, ExecutorService executor, Consumer<Result> consumer) {
+        List<Future<?>> futures = new ArrayList<>(files.size());
+        for (Path file : files) {
+            futures.add(executor.submit(() -> consumer.accept(solve(file))));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    /**
+     * Solves a single input on the current thread, failures are returned as part of the result.
+     */
+    public Result solve(Path file) {
+        Result result = new Result(file);
+        Puzzle<Object> puzzle = puzzles.get();
+        long start = System.nanoTime();
+        try {
+            if (streaming) {
+                StreamingPuzzle<Object> streamingPuzzle = (StreamingPuzzle<Object>) puzzle;
+                try (LineReader lines = LineReader.of(file)) {
+                    result.answerOne = streamingPuzzle.streamPartOne(lines);
+                }
+                try (LineReader lines = LineReader.of(file)) {
+                    result.answerTwo = streamingPuzzle.streamPartTwo(lines);
+                }
+            } else {
+                Object input = puzzle.parseInput(MappedInput.of(file));
+                result.answerOne = puzzle.partOne(input);
+                result.answerTwo = puzzle.partTwo(input);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to solve {}: {}", file, e.toString());
+            result.failure = e;
+        }
+        result.nanos = System.nanoTime() - start;
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    @SneakyThrows
+    private static Puzzle<Object> newPuzzle(Class<?> puzzleClass) {
+        return (Puzzle<Object>) puzzleClass.getDeclaredConstructor().newInstance();
+    }
+
+    @Data
+    public static class Result {
+        private final Path file;
+        private Object answerOne;
+        private Object answerTwo;
+        private long nanos;
+        private Exception failure;
+    }
+}
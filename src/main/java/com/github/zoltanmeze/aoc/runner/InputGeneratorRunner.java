@@ -0,0 +1,52 @@
+package com.github.zoltanmeze.aoc.runner;
+
+import com.github.zoltanmeze.aoc.InputGenerator;
+import com.github.zoltanmeze.aoc.Puzzle;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Path;
+
+/**
+ * Writes a synthetic input of a day, by default into the working directory as {@code day07-x1000.txt}.
+ *
+ * <pre>
+ * InputGeneratorRunner --day=Day07 [--scale=N] [--seed=N] [--output=file]
+ * </pre>
+ */
+@Slf4j
+public class InputGeneratorRunner {
+
+    private static final String PUZZLE_PACKAGE = Puzzle.class.getPackageName();
+
+    public static void main(String[] args) throws ClassNotFoundException {
+        String day = null;
+        int scale = 1;
+        long seed = 2023L;
+        Path output = null;
+        for (String arg : args) {
+            if (arg.startsWith("--day=")) {
+                day = arg.substring("--day=".length());
+            } else if (arg.startsWith("--scale=")) {
+                scale = Integer.parseInt(arg.substring("--scale=".length()));
+            } else if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(arg.substring("--seed=".length()));
+            } else if (arg.startsWith("--output=")) {
+                output = Path.of(arg.substring("--output=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown argument " + arg);
+            }
+        }
+        if (day == null) {
+            throw new IllegalArgumentException("Missing --day argument");
+        }
+        if (output == null) {
+            output = Path.of(day.toLowerCase() + "-x" + scale + ".txt");
+        }
+        Class<?> puzzleClass = Class.forName(PUZZLE_PACKAGE + "." + day.toLowerCase() + "." + day);
+
+        long start = System.nanoTime();
+        InputGenerator.of(puzzleClass).generate(seed, scale, output);
+        log.info("Generated {} with scale {} and seed {} to {} ({} bytes) in {} ms", day, scale, seed, output,
+            output.toFile().length(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
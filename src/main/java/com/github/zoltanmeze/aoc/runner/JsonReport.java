@@ -0,0 +1,97 @@
+package com.github.zoltanmeze.aoc.runner;
+
+import com.github.zoltanmeze.aoc.runner.PuzzleRunner.Timing;
+import lombok.SneakyThrows;
+import lombok.experimental.UtilityClass;
+
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Machine readable report of a {@link PuzzleRunner} run, one object per puzzle with the metrics of every phase:
+ *
+ * <pre>
+ * {"timestamp": "...", "javaVersion": "17.0.9", "executor": "fork-join", "threads": 8, "streaming": false,
+ *  "wallNanos": 123, "puzzles": [{"name": "Day01", "answerOne": "54390", "answerTwo": "54277", "failure": null,
+ *  "parse": {"wallNanos": 1, "cpuNanos": 1, "allocatedBytes": 1}, "partOne": {...}, "partTwo": {...},
+ *  "totalNanos": 3}]}
+ * </pre>
+ * Phases which didn't run are {@code null}.
+ */
+@UtilityClass
+public class JsonReport {
+
+    @SneakyThrows
+    public static void write(Path file, List<Timing> timings, long wallNanos, String executor, int threads, boolean streaming) {
+        StringBuilder json = new StringBuilder(1024);
+        json.append("{\n");
+        json.append("  \"timestamp\": ").append(quote(Instant.now().toString())).append(",\n");
+        json.append("  \"javaVersion\": ").append(quote(System.getProperty("java.version"))).append(",\n");
+        json.append("  \"executor\": ").append(quote(executor)).append(",\n");
+        json.append("  \"threads\": ").append(threads).append(",\n");
+        json.append("  \"streaming\": ").append(streaming).append(",\n");
+        json.append("  \"wallNanos\": ").append(wallNanos).append(",\n");
+        json.append("  \"puzzles\": [");
+        for (int i = 0; i < timings.size(); i++) {
+            Timing timing = timings.get(i);
+            json.append(i > 0 ? ",\n" : "\n");
+            json.append("    {\"name\": ").append(quote(timing.getName()));
+            json.append(", \"answerOne\": ").append(quote(timing.getAnswerOne()));
+            json.append(", \"answerTwo\": ").append(quote(timing.getAnswerTwo()));
+            json.append(", \"failure\": ").append(quote(timing.getFailure()));
+            json.append(",\n      \"parse\": ");
+            append(json, timing.getParse());
+            json.append(",\n      \"partOne\": ");
+            append(json, timing.getPartOne());
+            json.append(",\n      \"partTwo\": ");
+            append(json, timing.getPartTwo());
+            json.append(",\n      \"totalNanos\": ").append(timing.getTotal()).append('}');
+        }
+        json.append("\n  ]\n}\n");
+
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(json.toString());
+        }
+    }
+
+    private static void append(StringBuilder json, PhaseMetrics metrics) {
+        if (metrics == null) {
+            json.append("null");
+            return;
+        }
+        json.append("{\"wallNanos\": ").append(metrics.getWallNanos())
+            .append(", \"cpuNanos\": ").append(metrics.getCpuNanos())
+            .append(", \"allocatedBytes\": ").append(metrics.getAllocatedBytes())
+            .append('}');
+    }
+
+    private static String quote(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        String string = value.toString();
+        StringBuilder quoted = new StringBuilder(string.length() + 2).append('"');
+        for (int i = 0; i < string.length(); i++) {
+            char ch = string.charAt(i);
+            switch (ch) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (ch < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) ch));
+                    } else {
+                        quoted.append(ch);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
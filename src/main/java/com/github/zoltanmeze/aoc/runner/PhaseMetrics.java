@@ -0,0 +1,66 @@
+package com.github.zoltanmeze.aoc.runner;
+
+import lombok.Data;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+/**
+ * Cost of a single phase (parsing or solving a part): wall time, CPU time and bytes allocated by the current thread.
+ * Work handed over to other threads is only counted in the wall time.
+ * Counters not supported by the JVM are reported as {@code -1}.
+ */
+@Data
+public class PhaseMetrics {
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadMXBean();
+
+    private final long wallNanos;
+    private final long cpuNanos;
+    private final long allocatedBytes;
+
+    /**
+     * Runs the phase on the current thread and hands its cost to the consumer before returning the result.
+     */
+    public static <T> T measure(Supplier<T> phase, MetricsConsumer consumer) {
+        long cpu = cpuNanos();
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        T result = phase.get();
+        long wall = System.nanoTime() - start;
+        consumer.accept(new PhaseMetrics(wall, difference(cpu, cpuNanos()), difference(allocated, allocatedBytes())));
+        return result;
+    }
+
+    private static long cpuNanos() {
+        return THREADS != null && THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    private static long allocatedBytes() {
+        return THREADS != null && THREADS.isThreadAllocatedMemoryEnabled()
+            ? THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+    }
+
+    private static long difference(long before, long after) {
+        return before < 0 || after < 0 ? -1 : after - before;
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            return null; // Not a HotSpot based JVM, only wall time is measured
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (threads.isThreadCpuTimeSupported() && !threads.isThreadCpuTimeEnabled()) {
+            threads.setThreadCpuTimeEnabled(true);
+        }
+        if (threads.isThreadAllocatedMemorySupported() && !threads.isThreadAllocatedMemoryEnabled()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+        return threads;
+    }
+
+    @FunctionalInterface
+    public interface MetricsConsumer {
+        void accept(PhaseMetrics metrics);
+    }
+}
@@ -0,0 +1,159 @@
+package com.github.zoltanmeze.aoc.runner;
+
+import com.github.zoltanmeze.aoc.Puzzle;
+import com.github.zoltanmeze.aoc.StreamingPuzzle;
+import com.github.zoltanmeze.aoc.utilities.ClassUtils;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs every day found on the class path at the same time, and prints how long parsing and the two parts took.
+ * Wall time, CPU time and allocations of every phase are written to a JSON report as well,
+ * {@code puzzle-report.json} in the working directory by default.
+ *
+ * <pre>
+ * PuzzleRunner [--executor=fork-join|fixed] [--threads=N] [--streaming] [--report=file.json]
+ * </pre>
+ * With {@code --streaming} the days able to solve their parts while reading the input do so, nothing is parsed upfront.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class PuzzleRunner {
+
+    private static final String PUZZLE_PACKAGE = Puzzle.class.getPackageName();
+
+    private final ExecutorService executor;
+    private final boolean streaming;
+
+    public static void main(String[] args) throws InterruptedException {
+        String executorType = "fork-join";
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean streaming = false;
+        Path report = Path.of("puzzle-report.json");
+        for (String arg : args) {
+            if (arg.startsWith("--executor=")) {
+                executorType = arg.substring("--executor=".length());
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.equals("--streaming")) {
+                streaming = true;
+            } else if (arg.startsWith("--report=")) {
+                report = Path.of(arg.substring("--report=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown argument " + arg);
+            }
+        }
+        ExecutorService executor = switch (executorType) {
+            case "fork-join" -> new ForkJoinPool(threads);
+            case "fixed" -> Executors.newFixedThreadPool(threads);
+            default -> throw new IllegalArgumentException("Unknown executor " + executorType);
+        };
+        try {
+            PuzzleRunner runner = new PuzzleRunner(executor, streaming);
+            List<Class<? extends Runnable>> classes = ClassUtils.findClasses(PUZZLE_PACKAGE, Runnable.class);
+            long start = System.nanoTime();
+            List<Timing> timings = runner.runAll(classes);
+            long wallNanos = System.nanoTime() - start;
+            print(timings, wallNanos, System.out);
+            JsonReport.write(report, timings, wallNanos, executorType, threads, streaming);
+            log.info("Report written to {}", report.toAbsolutePath());
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    public List<Timing> runAll(List<Class<? extends Runnable>> classes) {
+        List<CompletableFuture<Timing>> futures = new ArrayList<>(classes.size());
+        for (Class<? extends Runnable> clazz : classes) {
+            futures.add(CompletableFuture.supplyAsync(() -> run(clazz), executor));
+        }
+        List<Timing> timings = new ArrayList<>(futures.size());
+        for (CompletableFuture<Timing> future : futures) {
+            timings.add(future.join());
+        }
+        return timings;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Timing run(Class<? extends Runnable> clazz) {
+        Timing timing = new Timing(clazz.getSimpleName());
+        long start = System.nanoTime();
+        try {
+            Runnable runnable = clazz.getDeclaredConstructor().newInstance();
+            if (streaming && runnable instanceof StreamingPuzzle) {
+                StreamingPuzzle<?> puzzle = (StreamingPuzzle<?>) runnable;
+                timing.answerOne = PhaseMetrics.measure(puzzle::streamPartOne, metrics -> timing.partOne = metrics);
+                timing.answerTwo = PhaseMetrics.measure(puzzle::streamPartTwo, metrics -> timing.partTwo = metrics);
+            } else if (runnable instanceof Puzzle) {
+                Puzzle<Object> puzzle = (Puzzle<Object>) runnable;
+                Object input = PhaseMetrics.measure(puzzle::parseInput, metrics -> timing.parse = metrics);
+                timing.answerOne = PhaseMetrics.measure(() -> puzzle.partOne(input), metrics -> timing.partOne = metrics);
+                timing.answerTwo = PhaseMetrics.measure(() -> puzzle.partTwo(input), metrics -> timing.partTwo = metrics);
+            } else {
+                runnable.run(); // Nothing to split into phases, only the total is known
+            }
+        } catch (Exception e) {
+            log.error("{} failed", clazz.getSimpleName(), e);
+            timing.failure = e;
+        }
+        timing.total = System.nanoTime() - start;
+        return timing;
+    }
+
+    public static void print(List<Timing> timings, long wallNanos, PrintStream out) {
+        String format = "%-8s %12s %12s %12s %12s %12s  %-20s %-20s%n";
+        out.printf(format, "Puzzle", "Parse (ms)", "One (ms)", "Two (ms)", "Total (ms)", "Alloc (MB)", "Part one", "Part two");
+        long sum = 0L;
+        for (Timing timing : timings) {
+            sum += timing.total;
+            out.printf(format, timing.name, millis(timing.parse), millis(timing.partOne), millis(timing.partTwo), millis(timing.total),
+                megabytes(timing.parse, timing.partOne, timing.partTwo),
+                timing.failure != null ? "failed" : String.valueOf(timing.answerOne),
+                timing.failure != null ? timing.failure.getClass().getSimpleName() : String.valueOf(timing.answerTwo));
+        }
+        out.printf("Wall time: %s ms, sum of puzzle times: %s ms%n", millis(wallNanos), millis(sum));
+    }
+
+    private static String millis(PhaseMetrics metrics) {
+        return metrics == null ? "-" : millis(metrics.getWallNanos());
+    }
+
+    private static String millis(long nanos) {
+        return nanos < 0 ? "-" : String.format("%.3f", nanos / 1_000_000d);
+    }
+
+    private static String megabytes(PhaseMetrics... phases) {
+        long bytes = 0L;
+        for (PhaseMetrics metrics : phases) {
+            if (metrics != null && metrics.getAllocatedBytes() < 0) {
+                return "-";
+            }
+            bytes += metrics == null ? 0L : metrics.getAllocatedBytes();
+        }
+        return String.format("%.1f", bytes / (1024d * 1024d));
+    }
+
+    @Data
+    public static class Timing {
+        private final String name;
+        private PhaseMetrics parse;
+        private PhaseMetrics partOne;
+        private PhaseMetrics partTwo;
+        private long total = -1;
+        private Object answerOne;
+        private Object answerTwo;
+        private Exception failure;
+    }
+}
@@ -0,0 +1,231 @@
+package com.github.zoltanmeze.aoc.utilities;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Cursor over ASCII bytes for parsing inputs with a known layout, numbers are read straight from the bytes.
+ * Numbers and words skip leading spaces, literals have to match exactly at the cursor.
+ */
+public final class ByteTokenizer {
+
+    private final ByteBuffer buffer;
+    private final int limit;
+    private int position;
+
+    private ByteTokenizer(ByteBuffer buffer, int position, int limit) {
+        this.buffer = buffer;
+        this.position = position;
+        this.limit = limit;
+    }
+
+    public static ByteTokenizer of(MappedInput input) {
+        return new ByteTokenizer(input.buffer(), input.position(), input.size());
+    }
+
+    public static ByteTokenizer of(ByteBuffer buffer) {
+        return new ByteTokenizer(buffer, buffer.position(), buffer.limit());
+    }
+
+    public int position() {
+        return position;
+    }
+
+    public boolean hasNext() {
+        return position < limit;
+    }
+
+    /**
+     * Returns the byte at the cursor, or -1 at the end of the input.
+     */
+    public int peek() {
+        return peek(0);
+    }
+
+    public int peek(int offset) {
+        int index = position + offset;
+        return index < limit ? buffer.get(index) : -1;
+    }
+
+    public char nextChar() {
+        if (position >= limit) {
+            throw error("a character");
+        }
+        return (char) (buffer.get(position++) & 0xFF);
+    }
+
+    public void skipSpaces() {
+        while (position < limit && buffer.get(position) == ' ') {
+            position++;
+        }
+    }
+
+    /**
+     * Moves the cursor right after the next occurrence of the character.
+     *
+     * @return false if the character was not found, the cursor is at the end of the input
+     */
+    public boolean skipUntil(char ch) {
+        while (position < limit) {
+            if (buffer.get(position++) == ch) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void expect(char ch) {
+        if (!accept(ch)) {
+            throw error("'" + ch + "'");
+        }
+    }
+
+    public void expect(String literal) {
+        if (!accept(literal)) {
+            throw error("'" + literal + "'");
+        }
+    }
+
+    public boolean accept(char ch) {
+        if (position < limit && buffer.get(position) == ch) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean accept(String literal) {
+        int length = literal.length();
+        if (position + length > limit) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(position + i) != literal.charAt(i)) {
+                return false;
+            }
+        }
+        position += length;
+        return true;
+    }
+
+    /**
+     * Consumes trailing spaces and the line terminator, the end of the input is accepted as one.
+     */
+    public void expectEndOfLine() {
+        if (!acceptEndOfLine() && position < limit) {
+            throw error("end of line");
+        }
+    }
+
+    public boolean acceptEndOfLine() {
+        int start = position;
+        skipSpaces();
+        accept('\r');
+        if (accept('\n')) {
+            return true;
+        }
+        position = start;
+        return false;
+    }
+
+    /**
+     * Checks if a (possibly negative) number follows after the spaces, the spaces are consumed.
+     */
+    public boolean hasNextNumber() {
+        skipSpaces();
+        int ch = peek();
+        return isDigit(ch) || (ch == '-' && isDigit(peek(1)));
+    }
+
+    public int nextInt() {
+        long number = nextLong();
+        if (number != (int) number) {
+            throw new NumberFormatException("Number " + number + " at position " + position + " is out of int range");
+        }
+        return (int) number;
+    }
+
+    public long nextLong() {
+        skipSpaces();
+        boolean negative = accept('-');
+        int start = position;
+        long number = 0L;
+        byte ch;
+        while (position < limit && (ch = buffer.get(position)) >= '0' && ch <= '9') {
+            number = Math.addExact(Math.multiplyExact(number, 10L), ch - '0');
+            position++;
+        }
+        if (position == start) {
+            throw error("a number");
+        }
+        return negative ? -number : number;
+    }
+
+    /**
+     * Reads every number until the end of the line, the line terminator itself is not consumed.
+     */
+    public int[] nextInts() {
+        int[] numbers = new int[8];
+        int size = 0;
+        while (hasNextNumber()) {
+            if (size == numbers.length) {
+                numbers = Arrays.copyOf(numbers, size * 2);
+            }
+            numbers[size++] = nextInt();
+        }
+        return Arrays.copyOf(numbers, size);
+    }
+
+    /**
+     * Reads every number until the end of the line, the line terminator itself is not consumed.
+     */
+    public long[] nextLongs() {
+        long[] numbers = new long[8];
+        int size = 0;
+        while (hasNextNumber()) {
+            if (size == numbers.length) {
+                numbers = Arrays.copyOf(numbers, size * 2);
+            }
+            numbers[size++] = nextLong();
+        }
+        return Arrays.copyOf(numbers, size);
+    }
+
+    /**
+     * Reads a run of letters, digits and underscores.
+     */
+    public String nextWord() {
+        skipSpaces();
+        int start = position;
+        while (position < limit && isWordCharacter(buffer.get(position))) {
+            position++;
+        }
+        if (position == start) {
+            throw error("a word");
+        }
+        byte[] bytes = new byte[position - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    public void skipWord() {
+        skipSpaces();
+        while (position < limit && isWordCharacter(buffer.get(position))) {
+            position++;
+        }
+    }
+
+    private static boolean isDigit(int ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    private static boolean isWordCharacter(int ch) {
+        return isDigit(ch) || (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || ch == '_';
+    }
+
+    private RuntimeException error(String expected) {
+        String found = position < limit ? "'" + (char) buffer.get(position) + "'" : "end of input";
+        return new RuntimeException("Expected " + expected + " at position " + position + ", found " + found);
+    }
+}
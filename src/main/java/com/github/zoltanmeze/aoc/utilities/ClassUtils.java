@@ -0,0 +1,76 @@
+package com.github.zoltanmeze.aoc.utilities;
+
+import lombok.SneakyThrows;
+import lombok.experimental.UtilityClass;
+
+import java.io.File;
+import java.lang.reflect.Modifier;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+@UtilityClass
+public class ClassUtils {
+
+    /**
+     * Finds every concrete, public, top level class under the package (and its sub packages) which is assignable to the given type.
+     * Both exploded class directories and jar files on the class path are scanned.
+     */
+    @SneakyThrows
+    public static <T> List<Class<? extends T>> findClasses(String packageName, Class<T> type) {
+        ClassLoader classLoader = ClassUtils.class.getClassLoader();
+        String packagePath = packageName.replace('.', '/');
+
+        Set<String> classNames = new TreeSet<>();
+        Enumeration<URL> resources = classLoader.getResources(packagePath);
+        while (resources.hasMoreElements()) {
+            URL resource = resources.nextElement();
+            if (resource.getProtocol().equals("jar")) {
+                JarURLConnection connection = (JarURLConnection) resource.openConnection();
+                connection.setUseCaches(false);
+                try (JarFile jarFile = connection.getJarFile()) {
+                    jarFile.stream()
+                        .map(JarEntry::getName)
+                        .filter(name -> name.startsWith(packagePath + "/"))
+                        .forEach(name -> addClassName(name, classNames));
+                }
+            } else if (resource.getProtocol().equals("file")) {
+                Path root = new File(URLDecoder.decode(resource.getPath(), StandardCharsets.UTF_8)).toPath();
+                try (Stream<Path> paths = Files.walk(root)) {
+                    paths.map(path -> packagePath + "/" + root.relativize(path).toString().replace(File.separatorChar, '/'))
+                        .forEach(name -> addClassName(name, classNames));
+                }
+            }
+        }
+
+        List<Class<? extends T>> classes = new ArrayList<>();
+        for (String className : classNames) {
+            Class<?> clazz = Class.forName(className, false, classLoader);
+            int modifiers = clazz.getModifiers();
+            if (type.isAssignableFrom(clazz) && Modifier.isPublic(modifiers)
+                && !Modifier.isAbstract(modifiers) && !clazz.isInterface()) {
+                classes.add(clazz.asSubclass(type));
+            }
+        }
+        return classes;
+    }
+
+    private static void addClassName(String entryName, Set<String> classNames) {
+        if (!entryName.endsWith(".class") || entryName.contains("$")) {
+            return; // Nested and anonymous classes are skipped
+        }
+        String className = entryName.substring(0, entryName.length() - ".class".length()).replace('/', '.');
+        classNames.add(className);
+    }
+}
@@ -0,0 +1,180 @@
+package com.github.zoltanmeze.aoc.utilities;
+
+import com.github.zoltanmeze.aoc.utilities.MappedInput.Line;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Two dimensional grid of bytes stored row by row in one flat array, cells are addressed by {@code y * stride + x}.
+ * The grid can be surrounded by a border of padding cells holding a sentinel value, so walking to a neighbour
+ * never leaves the array and hot loops can test the sentinel instead of checking bounds.
+ */
+public final class Grid {
+
+    @Getter
+    private final int width;
+    @Getter
+    private final int height;
+    private final int padding;
+    @Getter
+    private final int stride;
+    private final byte border;
+    private final byte[] cells;
+    /**
+     * Index offsets of the neighbours in north, east, south and west order.
+     */
+    private final int[] neighbourOffsets;
+
+    public Grid(int width, int height, int padding, byte border) {
+        this(width, height, padding, border, new byte[(width + 2 * padding) * (height + 2 * padding)]);
+        if (padding > 0 && border != 0) {
+            Arrays.fill(cells, border);
+            fill((byte) 0);
+        }
+    }
+
+    private Grid(int width, int height, int padding, byte border, byte[] cells) {
+        this.width = width;
+        this.height = height;
+        this.padding = padding;
+        this.stride = width + 2 * padding;
+        this.border = border;
+        this.cells = cells;
+        this.neighbourOffsets = new int[] {-stride, 1, stride, -1};
+    }
+
+    public static Grid parse(MappedInput input) {
+        return parse(input, 0, (byte) 0);
+    }
+
+    /**
+     * Reads lines until an empty line (which is consumed) or the end of the input.
+     */
+    public static Grid parse(MappedInput input, int padding, byte border) {
+        List<Line> lines = new ArrayList<>();
+        while (input.hasNextLine()) {
+            Line line = input.nextLine();
+            if (line.isEmpty()) {
+                break;
+            } else if (!lines.isEmpty() && line.length() != lines.get(0).length()) {
+                throw new RuntimeException("Line " + lines.size() + " has different width than the first line");
+            }
+            lines.add(line);
+        }
+        if (lines.isEmpty()) {
+            throw new RuntimeException("Empty grid at position " + input.position());
+        }
+        Grid grid = new Grid(lines.get(0).length(), lines.size(), padding, border);
+        for (int y = 0; y < grid.height; y++) {
+            lines.get(y).asByteBuffer().get(grid.cells, grid.index(0, y), grid.width);
+        }
+        return grid;
+    }
+
+    /**
+     * Number of cells including the border, every index of the grid is below it.
+     */
+    public int size() {
+        return cells.length;
+    }
+
+    /**
+     * Index offset of the neighbour in the direction, directions are numbered north, east, south and west.
+     */
+    public int neighbourOffset(int direction) {
+        return neighbourOffsets[direction];
+    }
+
+    public int index(int x, int y) {
+        return (y + padding) * stride + x + padding;
+    }
+
+    public int x(int index) {
+        return index % stride - padding;
+    }
+
+    public int y(int index) {
+        return index / stride - padding;
+    }
+
+    public int offset(int dx, int dy) {
+        return dy * stride + dx;
+    }
+
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    public byte get(int index) {
+        return cells[index];
+    }
+
+    public byte get(int x, int y) {
+        return cells[index(x, y)];
+    }
+
+    public void set(int index, byte value) {
+        cells[index] = value;
+    }
+
+    public void set(int x, int y, byte value) {
+        cells[index(x, y)] = value;
+    }
+
+    /**
+     * Copies the cells of the row, without the border, into the target from the offset.
+     */
+    public void copyRow(int y, byte[] target, int offset) {
+        System.arraycopy(cells, index(0, y), target, offset, width);
+    }
+
+    /**
+     * Fills every cell inside the border.
+     */
+    public void fill(byte value) {
+        for (int y = 0; y < height; y++) {
+            int index = index(0, y);
+            Arrays.fill(cells, index, index + width, value);
+        }
+    }
+
+    public Grid copy() {
+        return new Grid(width, height, padding, border, Arrays.copyOf(cells, cells.length));
+    }
+
+    public Grid transpose() {
+        Grid transposed = new Grid(height, width, padding, border);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0, index = index(0, y); x < width; x++, index++) {
+                transposed.cells[transposed.index(y, x)] = cells[index];
+            }
+        }
+        return transposed;
+    }
+
+    public Grid flipVertically() {
+        Grid flipped = new Grid(width, height, padding, border);
+        for (int y = 0; y < height; y++) {
+            System.arraycopy(cells, index(0, y), flipped.cells, flipped.index(0, height - 1 - y), width);
+        }
+        return flipped;
+    }
+
+    /**
+     * Row by row text of the grid without the border.
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder((width + 1) * height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0, index = index(0, y); x < width; x++, index++) {
+                builder.append((char) (cells[index] & 0xFF));
+            }
+            builder.append('\n');
+        }
+        return builder.toString();
+    }
+}
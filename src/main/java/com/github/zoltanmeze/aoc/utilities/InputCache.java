@@ -0,0 +1,139 @@
+package com.github.zoltanmeze.aoc.utilities;
+
+import lombok.Data;
+import lombok.SneakyThrows;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Function;
+import java.util.zip.CRC32C;
+
+/**
+ * Bounded, least recently used cache of parsed inputs, shared by every puzzle in the JVM.
+ * Entries are keyed by the owner of the parser and the resource name, and are only reused while the
+ * last modified time and the size of the file are unchanged, so a lookup is a single read of the file attributes.
+ * <p>
+ * A rewrite of the same size within one tick of the modification time clock keeps both unchanged. That can only go
+ * unnoticed if the file was loaded within the tick it was last modified in, so only those entries also keep the
+ * CRC32C checksum of the contents and compare it on every lookup, like git does for racily clean files.
+ * Cached inputs are shared, they must not be mutated.
+ */
+public final class InputCache {
+
+    private static final InputCache SHARED = new InputCache(Integer.getInteger("aoc.input.cache.size", 16));
+    /**
+     * Coarsest resolution of modification times among common file systems (FAT).
+     */
+    private static final long CLOCK_TICK_MILLIS = 2_000L;
+
+    private final Map<Key, Entry> entries;
+
+    public InputCache(int maxSize) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public static InputCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the parsed resource, parsing it at most once for as long as the file is unchanged.
+     * Parsing happens outside the lock, concurrent callers of the same key wait for the first one.
+     */
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    public <T> T get(Class<?> owner, String resourceName, Function<MappedInput, T> parser) {
+        Path path = ResourceUtils.getResourceFile(resourceName).toPath();
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        long loadedAt = System.currentTimeMillis();
+
+        Key key = Key.of(owner, resourceName);
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        boolean created = false;
+        if (entry == null || !entry.isValid(path, attributes)) {
+            MappedInput input = MappedInput.of(path);
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            boolean racy = loadedAt - lastModified < CLOCK_TICK_MILLIS;
+            Entry loaded = new Entry(lastModified, attributes.size(), racy, racy ? checksum(input) : 0L,
+                new FutureTask<>(() -> parser.apply(input)));
+            synchronized (entries) {
+                Entry current = entries.get(key);
+                if (current == null || current == entry) {
+                    entries.put(key, loaded);
+                    entry = loaded;
+                    created = true;
+                } else {
+                    entry = current; // Replaced by a concurrent caller meanwhile
+                }
+            }
+        }
+        if (created) {
+            entry.value.run();
+        }
+        try {
+            return (T) entry.value.get();
+        } catch (ExecutionException e) {
+            synchronized (entries) {
+                entries.remove(key, entry);
+            }
+            throw e.getCause();
+        }
+    }
+
+    private static long checksum(MappedInput input) {
+        CRC32C crc = new CRC32C();
+        crc.update(input.buffer());
+        return crc.getValue();
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Data(staticConstructor = "of")
+    private static class Key {
+        private final Class<?> owner;
+        private final String resourceName;
+    }
+
+    /**
+     * Parsed input and the state of the file it was parsed from, racy entries were loaded within the clock tick
+     * of their modification time and are checked against the checksum too.
+     */
+    @Data
+    private static class Entry {
+        private final long lastModified;
+        private final long size;
+        private final boolean racy;
+        private final long checksum;
+        private final FutureTask<Object> value;
+
+        private boolean isValid(Path path, BasicFileAttributes attributes) {
+            if (lastModified != attributes.lastModifiedTime().toMillis() || size != attributes.size()) {
+                return false;
+            }
+            return !racy || checksum == checksum(MappedInput.of(path));
+        }
+    }
+}
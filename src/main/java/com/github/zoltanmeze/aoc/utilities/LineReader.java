@@ -0,0 +1,106 @@
+package com.github.zoltanmeze.aoc.utilities;
+
+import com.github.zoltanmeze.aoc.utilities.MappedInput.Line;
+import lombok.SneakyThrows;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Forward only reader of an ASCII file through a memory mapped window sliding over the file, so files of any size
+ * (even over 2 GB) can be read with the same, small amount of memory. Lines are {@link Line} views on the window
+ * they were read from, they stay valid after the window has moved on.
+ */
+public final class LineReader implements Closeable {
+
+    private static final int DEFAULT_WINDOW_SIZE = 64 << 20;
+
+    private final FileChannel channel;
+    private final long size;
+    private int windowSize;
+    private ByteBuffer window;
+    private long windowStart;
+    private int position;
+
+    @SneakyThrows
+    private LineReader(Path path, int windowSize) {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowSize = windowSize;
+        map(0L);
+    }
+
+    public static LineReader ofResource(String name) {
+        return of(ResourceUtils.getResourceFile(name).toPath());
+    }
+
+    public static LineReader of(Path path) {
+        return of(path, DEFAULT_WINDOW_SIZE);
+    }
+
+    public static LineReader of(Path path, int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Window size has to be positive, got " + windowSize);
+        }
+        return new LineReader(path, windowSize);
+    }
+
+    public boolean hasNextLine() {
+        return windowStart + position < size;
+    }
+
+    /**
+     * Returns the next line without the line terminator, {@code \r\n} terminated lines are supported as well.
+     */
+    public Line nextLine() {
+        return next('\n');
+    }
+
+    /**
+     * Returns everything up to the next delimiter or the end of the line, whichever comes first,
+     * and consumes the delimiter.
+     */
+    public Line next(char delimiter) {
+        if (!hasNextLine()) {
+            throw new IllegalStateException("No more lines at position " + (windowStart + position));
+        }
+        int end = position;
+        while (true) {
+            int limit = window.limit();
+            while (end < limit && window.get(end) != delimiter && window.get(end) != '\n') {
+                end++;
+            }
+            if (end < limit || windowStart + limit == size) {
+                break;
+            }
+            // Token continues after the window, move the window to its start (and grow it if it didn't fit)
+            if (position == 0) {
+                windowSize = (int) Math.min(Integer.MAX_VALUE, 2L * windowSize);
+            }
+            end -= position;
+            map(windowStart + position);
+        }
+        int start = position;
+        position = end + 1;
+        if (end > start && window.get(end - 1) == '\r') {
+            end--;
+        }
+        return new Line(window, start, end);
+    }
+
+    @SneakyThrows
+    private void map(long start) {
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize, size - start));
+        windowStart = start;
+        position = 0;
+    }
+
+    @Override
+    @SneakyThrows
+    public void close() {
+        channel.close(); // Mapping stays valid after the channel is closed, lines can still be used
+    }
+}
@@ -0,0 +1,213 @@
+package com.github.zoltanmeze.aoc.utilities;
+
+import lombok.SneakyThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read only, memory mapped view of an ASCII input file.
+ * Lines are handed out as {@link Line} views on the mapped bytes, nothing is decoded or copied until asked for.
+ */
+public final class MappedInput {
+
+    private final ByteBuffer buffer;
+    private int position;
+
+    private MappedInput(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    public static MappedInput ofResource(String name) {
+        return of(ResourceUtils.getResourceFile(name).toPath());
+    }
+
+    @SneakyThrows
+    public static MappedInput of(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // Mapping stays valid after the channel is closed
+            return new MappedInput(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public static MappedInput of(ByteBuffer buffer) {
+        return new MappedInput(buffer.asReadOnlyBuffer());
+    }
+
+    public int size() {
+        return buffer.limit();
+    }
+
+    public byte get(int index) {
+        return buffer.get(index);
+    }
+
+    /**
+     * Read only view of the whole input, independent of the position of this cursor.
+     */
+    public ByteBuffer buffer() {
+        return buffer.duplicate();
+    }
+
+    public int position() {
+        return position;
+    }
+
+    public void position(int position) {
+        this.position = position;
+    }
+
+    public boolean hasNextLine() {
+        return position < buffer.limit();
+    }
+
+    /**
+     * Returns the next line without the line terminator, {@code \r\n} terminated lines are supported as well.
+     */
+    public Line nextLine() {
+        int limit = buffer.limit();
+        if (position >= limit) {
+            throw new IllegalStateException("No more lines at position " + position);
+        }
+        int start = position;
+        int end = start;
+        while (end < limit && buffer.get(end) != '\n') {
+            end++;
+        }
+        position = end + 1;
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        return new Line(buffer, start, end);
+    }
+
+    /**
+     * View of a single line (or part of it) on the mapped bytes, each byte is exposed as one char.
+     */
+    public static final class Line implements CharSequence {
+
+        private final ByteBuffer buffer;
+        private final int start;
+        private final int end;
+
+        Line(ByteBuffer buffer, int start, int end) {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (buffer.get(start + index) & 0xFF);
+        }
+
+        public byte byteAt(int index) {
+            return buffer.get(start + index);
+        }
+
+        @Override
+        public Line subSequence(int from, int to) {
+            if (from < 0 || to > length() || from > to) {
+                throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for length " + length());
+            }
+            return new Line(buffer, start + from, start + to);
+        }
+
+        public int indexOf(char ch) {
+            return indexOf(ch, 0);
+        }
+
+        public int indexOf(char ch, int from) {
+            for (int i = start + Math.max(from, 0); i < end; i++) {
+                if (buffer.get(i) == ch) {
+                    return i - start;
+                }
+            }
+            return -1;
+        }
+
+        public int parseInt(int from, int to) {
+            return Integer.parseInt(this, from, to, 10);
+        }
+
+        public long parseLong(int from, int to) {
+            return Long.parseLong(this, from, to, 10);
+        }
+
+        /**
+         * Parses every number separated by one or more delimiters.
+         */
+        public int[] parseInts(char delimiter) {
+            int[] numbers = new int[countTokens(delimiter)];
+            for (int i = 0, from = skip(delimiter, 0); i < numbers.length; i++) {
+                int to = indexOfOrEnd(delimiter, from);
+                numbers[i] = parseInt(from, to);
+                from = skip(delimiter, to);
+            }
+            return numbers;
+        }
+
+        /**
+         * Parses every number separated by one or more delimiters.
+         */
+        public long[] parseLongs(char delimiter) {
+            long[] numbers = new long[countTokens(delimiter)];
+            for (int i = 0, from = skip(delimiter, 0); i < numbers.length; i++) {
+                int to = indexOfOrEnd(delimiter, from);
+                numbers[i] = parseLong(from, to);
+                from = skip(delimiter, to);
+            }
+            return numbers;
+        }
+
+        private int countTokens(char delimiter) {
+            int count = 0;
+            for (int from = skip(delimiter, 0); from < length(); from = skip(delimiter, indexOfOrEnd(delimiter, from))) {
+                count++;
+            }
+            return count;
+        }
+
+        private int skip(char ch, int from) {
+            while (from < length() && charAt(from) == ch) {
+                from++;
+            }
+            return from;
+        }
+
+        private int indexOfOrEnd(char ch, int from) {
+            int index = indexOf(ch, from);
+            return index == -1 ? length() : index;
+        }
+
+        public char[] toCharArray() {
+            char[] chars = new char[length()];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = charAt(i);
+            }
+            return chars;
+        }
+
+        /**
+         * Read only view of the bytes of this line.
+         */
+        public ByteBuffer asByteBuffer() {
+            return buffer.slice(start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            byte[] bytes = new byte[length()];
+            buffer.get(start, bytes);
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.github.zoltanmeze.aoc.utilities;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Aho-Corasick automaton finding every occurrence of a set of tokens in a single left to right pass.
+ * Tokens are made of lower case letters and digits, transitions are kept in a dense table so stepping the automaton
+ * is a single array lookup, any other character resets it to the start state.
+ * <p>
+ * Every state may end a few tokens, these are enumerated from the longest to the shortest:
+ *
+ * <pre>
+ * for (int match = automaton.match(state); match != -1; match = automaton.nextMatch(match)) {
+ *     int value = automaton.value(match);
+ *     int start = end - automaton.length(match) + 1;
+ * }
+ * </pre>
+ */
+public final class TokenAutomaton {
+
+    private static final int LETTERS = 'z' - 'a' + 1;
+    private static final int DIGITS = '9' - '0' + 1;
+    private static final int OTHER = LETTERS + DIGITS;
+    private static final int ALPHABET = OTHER + 1;
+    private static final byte[] SYMBOLS = new byte[128];
+
+    static {
+        Arrays.fill(SYMBOLS, (byte) OTHER);
+        for (int ch = 'a'; ch <= 'z'; ch++) {
+            SYMBOLS[ch] = (byte) (ch - 'a');
+        }
+        for (int ch = '0'; ch <= '9'; ch++) {
+            SYMBOLS[ch] = (byte) (LETTERS + ch - '0');
+        }
+    }
+
+    private final int[] transitions;
+    private final int[] values;
+    private final int[] lengths;
+    private final int[] matches;
+    private final int[] nextMatches;
+    private final int maxLength;
+
+    private TokenAutomaton(int[] transitions, int[] values, int[] lengths, int[] matches, int[] nextMatches, int maxLength) {
+        this.transitions = transitions;
+        this.values = values;
+        this.lengths = lengths;
+        this.matches = matches;
+        this.nextMatches = nextMatches;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Builds the automaton of the tokens spelled backwards, for scanning a text from its end.
+     */
+    public static TokenAutomaton ofReversed(Map<String, Integer> tokens) {
+        Map<String, Integer> reversed = new LinkedHashMap<>();
+        tokens.forEach((token, value) -> reversed.put(new StringBuilder(token).reverse().toString(), value));
+        return of(reversed);
+    }
+
+    /**
+     * Builds the automaton of the tokens, mapped to their non-negative values.
+     */
+    public static TokenAutomaton of(Map<String, Integer> tokens) {
+        int capacity = 1;
+        for (String token : tokens.keySet()) {
+            capacity += token.length();
+        }
+        int[] transitions = new int[capacity * ALPHABET];
+        int[] values = new int[capacity];
+        int[] lengths = new int[capacity];
+        Arrays.fill(transitions, -1);
+        Arrays.fill(values, -1);
+
+        // Trie of the tokens first, missing transitions are -1
+        int states = 1;
+        int maxLength = 0;
+        for (Map.Entry<String, Integer> token : tokens.entrySet()) {
+            String word = token.getKey();
+            if (word.isEmpty() || token.getValue() < 0) {
+                throw new IllegalArgumentException("Invalid token '" + word + "' with value " + token.getValue());
+            }
+            int state = 0;
+            for (int i = 0; i < word.length(); i++) {
+                int symbol = symbol(word.charAt(i));
+                if (symbol == OTHER) {
+                    throw new IllegalArgumentException("Token '" + word + "' has to be made of lower case letters and digits");
+                }
+                if (transitions[state * ALPHABET + symbol] == -1) {
+                    lengths[states] = i + 1;
+                    transitions[state * ALPHABET + symbol] = states++;
+                }
+                state = transitions[state * ALPHABET + symbol];
+            }
+            values[state] = token.getValue();
+            maxLength = Math.max(maxLength, word.length());
+        }
+
+        // Breadth first over the trie, missing transitions are taken from the longest proper suffix (failure) state
+        int[] failures = new int[states];
+        int[] matches = new int[states];
+        int[] nextMatches = new int[states];
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        matches[0] = -1;
+        nextMatches[0] = -1;
+        for (int symbol = 0; symbol < ALPHABET; symbol++) {
+            int child = transitions[symbol];
+            if (child == -1) {
+                transitions[symbol] = 0;
+            } else {
+                queue[tail++] = child;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            nextMatches[state] = matches[failures[state]];
+            matches[state] = values[state] != -1 ? state : nextMatches[state];
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                int child = transitions[state * ALPHABET + symbol];
+                int fallback = transitions[failures[state] * ALPHABET + symbol];
+                if (child == -1) {
+                    transitions[state * ALPHABET + symbol] = fallback;
+                } else {
+                    failures[child] = fallback;
+                    queue[tail++] = child;
+                }
+            }
+        }
+        return new TokenAutomaton(Arrays.copyOf(transitions, states * ALPHABET), Arrays.copyOf(values, states),
+            Arrays.copyOf(lengths, states), matches, nextMatches, maxLength);
+    }
+
+    private static int symbol(int ch) {
+        return ch < SYMBOLS.length ? SYMBOLS[ch] : OTHER;
+    }
+
+    public int start() {
+        return 0;
+    }
+
+    public int next(int state, int ch) {
+        return transitions[state * ALPHABET + symbol(ch)];
+    }
+
+    /**
+     * Longest token ending in the state, {@code -1} if none.
+     */
+    public int match(int state) {
+        return matches[state];
+    }
+
+    /**
+     * Next shorter token ending where the matched one did, {@code -1} if none.
+     */
+    public int nextMatch(int match) {
+        return nextMatches[match];
+    }
+
+    public int value(int match) {
+        return values[match];
+    }
+
+    public int length(int match) {
+        return lengths[match];
+    }
+
+    /**
+     * Length of the longest token.
+     */
+    public int maxLength() {
+        return maxLength;
+    }
+}
@@ -0,0 +1,80 @@
+package com.github.zoltanmeze.aoc.day05;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RangeSetTest {
+
+    @Test
+    void coalescesOverlappingAndTouchingRanges() {
+        RangeSet ranges = RangeSet.ofLengths(new long[] {10, 5, 0, 3, 3, 2, 12, 10, 30, 0});
+
+        assertEquals("[[0, 5), [10, 22)]", ranges.toString());
+        assertEquals(0, ranges.min());
+    }
+
+    @Test
+    void cutsRangesWherePiecesChange() {
+        RangeSet ranges = RangeSet.ofLengths(new long[] {0, 20});
+
+        RangeSet mapped = ranges.map(CompiledAlmanac.ofStage(new long[] {100, 5, 5}));
+
+        assertEquals("[[0, 5), [10, 20), [100, 105)]", mapped.toString());
+    }
+
+    @Test
+    void coalescesFragmentsMovedNextToEachOther() {
+        RangeSet ranges = RangeSet.ofLengths(new long[] {0, 10});
+
+        RangeSet mapped = ranges.map(CompiledAlmanac.ofStage(new long[] {0, 5, 5, 5, 0, 5}));
+
+        assertEquals("[[0, 10)]", mapped.toString());
+    }
+
+    @Test
+    void coalescesFragmentsMovedOntoEachOther() {
+        RangeSet ranges = RangeSet.ofLengths(new long[] {2, 2, 10, 5});
+
+        RangeSet mapped = ranges.map(CompiledAlmanac.ofStage(new long[] {0, 10, 5}));
+
+        assertEquals("[[0, 5)]", mapped.toString());
+    }
+
+    @Test
+    void mapsTheSameNumbersAsMappingOneByOne() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int round = 0; round < 200; round++) {
+            long[] pairs = new long[2 * random.nextInt(1, 40)];
+            for (int i = 0; i < pairs.length; i += 2) {
+                pairs[i] = random.nextInt(200);
+                pairs[i + 1] = random.nextInt(20);
+            }
+            long[] stage = new long[3 * random.nextInt(1, 8)];
+            for (int i = 0; i < stage.length; i += 3) {
+                stage[i] = random.nextInt(200);
+                stage[i + 1] = random.nextInt(200);
+                stage[i + 2] = random.nextInt(1, 30);
+            }
+            CompiledAlmanac function = CompiledAlmanac.ofStage(stage);
+            RangeSet mapped = RangeSet.ofLengths(pairs).map(function);
+
+            BitSet expected = new BitSet();
+            for (int i = 0; i < pairs.length; i += 2) {
+                for (long value = pairs[i]; value < pairs[i] + pairs[i + 1]; value++) {
+                    expected.set((int) function.map(value));
+                }
+            }
+            BitSet actual = new BitSet();
+            for (int i = 0; i < mapped.size(); i++) {
+                assertTrue(i == 0 || mapped.end(i - 1) < mapped.start(i), () -> "Not coalesced: " + mapped);
+                actual.set((int) mapped.start(i), (int) mapped.end(i));
+            }
+            assertEquals(expected, actual, () -> "Mapping " + mapped);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.github.zoltanmeze.aoc.day06;
+
+import com.github.zoltanmeze.aoc.day06.Day06.Race;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class Day06Test {
+
+    private final Day06 day06 = new Day06();
+
+    @Test
+    void joinsRacesWhichFitIntoLong() {
+        Race[] races = {Race.of(7, 9), Race.of(15, 40), Race.of(30, 200)};
+
+        assertEquals(71503L, day06.partTwo(races));
+    }
+
+    @Test
+    void joinsRacesLongerThanLong() {
+        Race[] races = {Race.of(9_999_999_999L, 1_234_567_890_123_456_789L), Race.of(9_999_999_999L, 1_234_567_890_123_456_789L)};
+
+        // Race of 99999999999999999999 ms, past 2^63
+        assertEquals(new BigInteger("99752780835398577516"), day06.partTwo(races));
+    }
+}
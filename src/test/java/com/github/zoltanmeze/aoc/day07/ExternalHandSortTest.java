@@ -0,0 +1,86 @@
+package com.github.zoltanmeze.aoc.day07;
+
+import com.github.zoltanmeze.aoc.utilities.LineReader;
+import com.github.zoltanmeze.aoc.utilities.MappedInput;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExternalHandSortTest {
+
+    private static final String CARDS = "AKQJT98765432";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void radixSortKeepsEqualHandsInInputOrder() {
+        SplittableRandom random = new SplittableRandom(7);
+        long[] keys = new long[5000];
+        for (int i = 0; i < keys.length; i++) {
+            // Few distinct hands, and bids in descending order so a sort on the whole key would reorder them
+            keys[i] = Day07.sortKey(random.nextInt(20) * 12345, keys.length - i, random.nextBoolean());
+        }
+        Long[] expected = Arrays.stream(keys).boxed().sorted(Comparator.comparingLong(Day07::handOf)).toArray(Long[]::new);
+
+        Day07.radixSort(keys, keys.length);
+
+        assertArrayEquals(Arrays.stream(expected).mapToLong(Long::longValue).toArray(), keys);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 64, 100_000})
+    void ranksLikeTheInMemorySort(int runSize) throws IOException {
+        Path input = writeHands(new SplittableRandom(runSize), 2000, 40);
+        Day07 day = new Day07();
+        Day07.Hands hands = day.parseInput(MappedInput.of(input));
+
+        ExternalHandSort sort = ExternalHandSort.of(directory, runSize);
+
+        assertEquals(day.partOne(hands), totalWinnings(sort, input, false));
+        assertEquals(day.partTwo(hands), totalWinnings(sort, input, true));
+    }
+
+    @Test
+    void removesItsTemporaryFiles() throws IOException {
+        Path input = writeHands(new SplittableRandom(1), 100, 10);
+
+        totalWinnings(ExternalHandSort.of(directory, 7), input, true);
+
+        try (var files = Files.list(directory)) {
+            assertEquals(Arrays.asList(input), files.collect(Collectors.toList()));
+        }
+    }
+
+    private long totalWinnings(ExternalHandSort sort, Path input, boolean treatJackAsJoker) {
+        try (LineReader lines = LineReader.of(input)) {
+            return sort.totalWinnings(lines, treatJackAsJoker);
+        }
+    }
+
+    /**
+     * Hands drawn from a small pool of distinct hands, so most of them have equal hands with other bids.
+     */
+    private Path writeHands(SplittableRandom random, int count, int distinct) throws IOException {
+        String[] pool = IntStream.range(0, distinct)
+            .mapToObj(i -> random.ints(5, 0, CARDS.length()).mapToObj(c -> String.valueOf(CARDS.charAt(c))).collect(Collectors.joining()))
+            .toArray(String[]::new);
+        String hands = IntStream.range(0, count)
+            .mapToObj(i -> pool[random.nextInt(distinct)] + " " + random.nextInt(1, 1000) + "\n")
+            .collect(Collectors.joining());
+        return Files.writeString(directory.resolve("hands.txt"), hands);
+    }
+}